@@ -1,11 +1,30 @@
+import classes.Position;
 import classes.RosterEntry;
 import java.awt.*;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 import javax.swing.*;
+import misc.BooleanQuery;
 import misc.ColorScheme;
+import misc.PerfEvents;
 import misc.CsvParser;
+import misc.RosterCatalog;
+import misc.RosterCli;
+import misc.RosterDiff;
+import misc.RosterQuery;
+import misc.RosterRepository;
+import misc.RosterServer;
+import misc.RosterStats;
+import misc.RosterWatcher;
+import misc.SearchExecutor;
 import ui.*;
 
 public class App {
@@ -15,13 +34,117 @@ public class App {
     private static List<ExpandableCard> allCards = new ArrayList<>();
     private static HeaderPanel headerPanel;
     private static JPanel contentPanel;
+    private static JScrollPane scrollPane;
+    private static volatile RosterQuery rosterQuery; // read by the search worker thread; ids are card ids
+    private static SearchExecutor searchExecutor;
+    private static int[] visibleIds; // sorted ids of cards currently shown by search
+    private static VirtualRosterView rosterView; // non-null when running in virtualized mode
+    private static RosterRepository repository;
+    private static List<Component> originalLayout = new ArrayList<>(); // section order as first built
+    private static final CardColumnLayout cardLayout = new CardColumnLayout(8);
+    private static JLabel filterTitle; // header over a filtered or ranked list, reused across switches
+    private static JPanel filterSeparator; // "Other Positions" rule, reused across switches
+    private static JLabel separatorLabel;
+    private static final String HEADER_KEY = "ravens.header"; // client property naming a section header
+    private static final boolean FILTER_TIMINGS = Boolean.getBoolean("ravens.filter.timings");
 
-    public static void main(String[] args) {
-        SwingUtilities.invokeLater(App::createUI);
+    private static final String OTHER_POSITIONS = "─────  Other Positions  ─────";
+    private static final String BEST_MATCHES = "BEST MATCHES";
+    private static final int SORT_OPTIONS = 15; // most common stats offered in the sort dropdown
+
+    // Typo-tolerant search that shows the best matches first instead of filtering in place
+    private static final boolean RANKED_SEARCH = Boolean.getBoolean("ravens.search.ranked");
+    private static final int RANKED_RESULTS = Integer.getInteger("ravens.search.topK", 50);
+    private static boolean showingRanked; // content is currently in best-match order
+    private static BitSet highlighted = new BitSet(); // ids of cards showing search highlights
+    private static volatile HighlightBatch searchHighlights; // computed by the search worker
+
+    // One-letter queries match nearly everything; highlighting them is just noise
+    private static final int MIN_HIGHLIGHT_LENGTH = 2;
+
+    // Startup: the roster loads on a background thread while the window is
+    // built, then cards are added a batch per EDT event so the window keeps
+    // painting. Until the last batch is in, search and filter input is held.
+    private static final int CARD_BATCH = Integer.getInteger("ravens.ui.cardBatch", 250);
+    private static final boolean STARTUP_METRICS = Boolean.getBoolean("ravens.startup.metrics");
+    private static long mainStarted;
+    private static volatile long rosterReady; // nanoTime when the background load finished
+    private static long firstFrame; // nanoTime of the first content paint
+    private static boolean interactive; // every card is in and searchable
+    private static boolean filterPending; // a filter was picked while loading
+    private static Position pendingFilter;
+    private static JPanel loadingPanel; // skeleton shown below the cards streamed in so far
+    private static JLabel loadingLabel;
+
+    // With -Dravens.roster.dir every CSV in that directory is a shard of one
+    // catalog and the app shows the active one; ravens.search.allShards also
+    // lists matches from every other shard below the cards
+    private static RosterCatalog catalog;
+    private static RosterCatalog.Shard activeShard;
+    private static final boolean SEARCH_ALL_SHARDS = Boolean.getBoolean("ravens.search.allShards");
+    private static final int OTHER_ROSTER_CARDS = Integer.getInteger("ravens.search.otherRosterCards", 10); // per shard
+    private static final String OTHER_ROSTERS = "OTHER ROSTERS";
+    private static JPanel otherRostersPanel;
+    private static volatile ShardHits otherRosterHits; // computed by the search worker
+
+    public static void main(String[] args) throws IOException {
+        // Headless: answer roster queries from stdin instead of opening a window
+        if (Arrays.asList(args).contains("--cli")) {
+            RosterCli.main(args);
+            return;
+        }
+        // Headless: serve roster queries as JSON on localhost
+        if (Arrays.asList(args).contains("--serve")) {
+            RosterServer.main(args);
+            return;
+        }
+        mainStarted = System.nanoTime();
+
+        Path csv = Paths.get("ravens_roster.csv").toAbsolutePath();
+        String dir = System.getProperty("ravens.roster.dir");
+        if (dir != null) {
+            try {
+                catalog = new RosterCatalog(Paths.get(dir).toAbsolutePath());
+                activeShard = catalog.initialShard();
+            } catch (IOException e) {
+                System.err.println("Could not read roster directory " + dir + ": " + e.getMessage());
+            }
+            if (activeShard == null) {
+                System.err.println("No roster shards in " + dir + ", using " + csv + " instead");
+                catalog = null;
+            }
+        }
+        repository = activeShard != null ? activeShard.getRepository() : new RosterRepository(csv);
+
+        // Read and index the roster while the EDT is still starting up
+        CompletableFuture<RosterQuery> loading = CompletableFuture.supplyAsync(() -> {
+            RosterQuery query = activeShard != null
+                ? catalog.activate(activeShard)
+                : new RosterQuery(repository.getRoster());
+            rosterReady = System.nanoTime();
+            if (catalog != null && SEARCH_ALL_SHARDS) {
+                catalog.loadAll(); // the other shards, in parallel, so the first search is quick
+            }
+            return query;
+        }, task -> {
+            Thread t = new Thread(task, "roster-load");
+            t.setDaemon(true);
+            t.start();
+        });
+        SwingUtilities.invokeLater(() -> createUI(loading));
     }
 
-    private static void createUI() {
-        JFrame frame = new JFrame("Baltimore Ravens – Roster & Staff");
+    private static void createUI(CompletableFuture<RosterQuery> loading) {
+        searchExecutor = new SearchExecutor(
+            Long.getLong("ravens.search.debounceMs", 120),
+            App::match,
+            App::applySearchResult
+        );
+        searchExecutor.setLogMetrics(Boolean.getBoolean("ravens.search.metrics"));
+
+        JFrame frame = new JFrame(activeShard != null
+            ? activeShard.label() + " – Roster & Staff"
+            : "Baltimore Ravens – Roster & Staff");
         frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         frame.setSize(900, 900);
 
@@ -39,6 +162,7 @@ public class App {
                 public void onCollapseAll() { toggleAll(false); }
             }
         );
+        headerPanel.setSortListener(App::sortByStat);
         mainContainer.add(headerPanel, BorderLayout.NORTH);
 
         // Content panel with cards
@@ -49,223 +173,925 @@ public class App {
                 d.width = getParent() != null ? getParent().getWidth() : d.width;
                 return d;
             }
+
+            @Override
+            protected void paintComponent(Graphics g) {
+                super.paintComponent(g);
+                if (firstFrame == 0) {
+                    firstFrame = System.nanoTime();
+                }
+            }
         };
 
-        contentPanel.setLayout(new BoxLayout(contentPanel, BoxLayout.Y_AXIS));
+        contentPanel.setLayout(cardLayout);
         contentPanel.setBackground(ColorScheme.BG_COLOR);
-        contentPanel.setBorder(BorderFactory.createEmptyBorder(20, 30, 20, 30));
+        contentPanel.setBorder(ColorScheme.CONTENT_PADDING);
 
-        // Load roster data from CSV
-        String csvPath = Paths.get("ravens_roster.csv").toAbsolutePath().toString();
-        List<RosterEntry> roster = CsvParser.loadRosterFromCSV(csvPath);
-        
-        populateContent(contentPanel, roster);
+        // Placeholder cards until the roster is loaded
+        loadingPanel = new JPanel(new CardColumnLayout(8));
+        loadingPanel.setBackground(ColorScheme.BG_COLOR);
+        loadingPanel.setAlignmentX(Component.LEFT_ALIGNMENT);
+        loadingLabel = new JLabel("Loading roster…");
+        loadingLabel.setFont(ColorScheme.SUBSECTION_FONT);
+        loadingLabel.setForeground(ColorScheme.SEPARATOR_TEXT);
+        loadingLabel.setBorder(ColorScheme.SUBSECTION_PADDING);
+        loadingPanel.add(loadingLabel);
+        for (int i = 0; i < 6; i++) {
+            loadingPanel.add(new SkeletonCard(i));
+        }
+        contentPanel.add(loadingPanel);
+
+        scrollPane = new JScrollPane(catalog != null && SEARCH_ALL_SHARDS ? withOtherRosters(contentPanel) : contentPanel);
 
-        JScrollPane scrollPane = new JScrollPane(contentPanel);
         scrollPane.setBorder(null);
         scrollPane.getVerticalScrollBar().setUnitIncrement(16);
+
+        // Measured detail heights only hold for one width; drop them when it changes
+        scrollPane.getViewport().addComponentListener(new ComponentAdapter() {
+            private int lastWidth = -1;
+
+            @Override
+            public void componentResized(ComponentEvent e) {
+                int width = e.getComponent().getWidth();
+                if (width != lastWidth) {
+                    lastWidth = width;
+                    TextMeasurer.shared().invalidate();
+                }
+            }
+        });
         mainContainer.add(scrollPane, BorderLayout.CENTER);
 
         frame.add(mainContainer);
+
+        // Opt-in diagnostics; see EdtMonitor and PerfOverlay
+        if (Boolean.getBoolean("ravens.ui.watchdog")) {
+            EdtMonitor.install(Long.getLong("ravens.ui.stallMs", 200), true);
+        }
+        if (Boolean.getBoolean("ravens.ui.overlay")) {
+            PerfOverlay.install(frame,
+                () -> rosterView != null ? rosterView.getCards().size() : allCards.size(),
+                () -> visibleIds != null ? visibleIds.length : 0);
+        }
         frame.setVisible(true);
+
+        loading.whenComplete((query, error) -> SwingUtilities.invokeLater(() -> {
+            if (error != null) {
+                System.err.println("Error loading roster: " + error.getMessage());
+                System.err.println("Using default roster data instead.");
+                showRoster(new RosterQuery(CsvParser.getDefaultRoster()));
+            } else {
+                showRoster(query);
+            }
+        }));
         
         // Show welcome dialog AFTER frame is visible
         SwingUtilities.invokeLater(() -> DialogHelper.showWelcomeDialog(frame));
     }
 
-    // Filter cards by category/position and move to top
-    private static void filterByCategory(String category) {
-        headerPanel.clearSearchField();
-        String lowerCategory = category.toLowerCase().trim();
-        
-        // If "All Positions" selected, restore original content
-        if (lowerCategory.isEmpty()) {
-            contentPanel.removeAll();
-            
-            // Reload roster and repopulate with original structure
-            String csvPath = Paths.get("ravens_roster.csv").toAbsolutePath().toString();
-            List<RosterEntry> roster = CsvParser.loadRosterFromCSV(csvPath);
-            populateContent(contentPanel, roster);
-            
+    // The content panel with room below it for matches from other shards
+    private static JPanel withOtherRosters(JPanel content) {
+        otherRostersPanel = new JPanel(new CardColumnLayout(8));
+        otherRostersPanel.setBackground(ColorScheme.BG_COLOR);
+        otherRostersPanel.setBorder(ColorScheme.CONTENT_PADDING);
+
+        JPanel page = new JPanel(new BorderLayout()) {
+            @Override
+            public Dimension getPreferredSize() {
+                Dimension d = super.getPreferredSize();
+                d.width = getParent() != null ? getParent().getWidth() : d.width;
+                return d;
+            }
+        };
+        page.setBackground(ColorScheme.BG_COLOR);
+        page.add(content, BorderLayout.NORTH);
+        page.add(otherRostersPanel, BorderLayout.CENTER);
+        return page;
+    }
+
+    // Swap the skeleton for the loaded roster. Rows for the virtualized view
+    // are cheap and go in at once; real cards stream in CARD_BATCH at a time.
+    private static void showRoster(RosterQuery query) {
+        rosterQuery = query;
+
+        // Large rosters only paint the rows in view instead of building a card per entry
+        boolean virtualized = Boolean.getBoolean("ravens.ui.virtualized")
+            || query.size() > Integer.getInteger("ravens.ui.virtualizeAbove", 5000);
+
+        if (virtualized) {
+            rosterView = new VirtualRosterView();
+            populateRows();
+            scrollPane.setViewportView(rosterView);
+            finishLoading(0);
+            return;
+        }
+
+        // Sections and cards in display order, each added by one step
+        List<Runnable> steps = new ArrayList<>(query.size() + 32);
+        query.layout(new RosterQuery.Visitor() {
+            public void section(String title) {
+                steps.add(() -> addSection(contentPanel, title, ColorScheme.RAVENS_GOLD));
+            }
+            public void subsection(String title) {
+                steps.add(() -> addSubsection(contentPanel, title));
+            }
+            public void card(RosterEntry entry, boolean isPlayer) {
+                steps.add(() -> addCard(contentPanel,
+                    new ExpandableCard(entry.displayName, entry.subtitle, entry.details, isPlayer)));
+            }
+        });
+        streamCards(steps, 0, 1);
+    }
+
+    // Add one batch above the skeleton, then yield to the event queue so the
+    // window paints and takes input before the next batch
+    private static void streamCards(List<Runnable> steps, int from, int batches) {
+        // The skeleton is always the last child, so taking it off is O(1)
+        contentPanel.remove(contentPanel.getComponentCount() - 1);
+        int to = Math.min(steps.size(), from + CARD_BATCH);
+        for (int i = from; i < to; i++) {
+            steps.get(i).run();
+        }
+        if (to < steps.size()) {
+            loadingLabel.setText(String.format("Loading roster… %,d of %,d cards",
+                allCards.size(), rosterQuery.size()));
+            contentPanel.add(loadingPanel);
+            contentPanel.revalidate();
+            contentPanel.repaint();
+            SwingUtilities.invokeLater(() -> streamCards(steps, to, batches + 1));
+        } else {
+            addFilterComponents();
             contentPanel.revalidate();
             contentPanel.repaint();
-            
-            // Scroll to top
-            SwingUtilities.invokeLater(() -> {
-                contentPanel.scrollRectToVisible(new Rectangle(0, 0, 1, 1));
-            });
+            finishLoading(batches);
+        }
+    }
+
+    // Everything is in: take input, catch up on anything typed or picked
+    // while loading, and report how long startup took
+    private static void finishLoading(int batches) {
+        visibleIds = rosterQuery.all();
+        interactive = true;
+        headerPanel.setSortOptions(sortOptions());
+        if (STARTUP_METRICS) {
+            reportStartup(batches);
+        }
+
+        // Pick up roster edits while the app is running
+        if (Boolean.getBoolean("ravens.watch")) {
+            startWatcher();
+        }
+
+        if (filterPending) {
+            filterByCategory(pendingFilter);
+        } else if (!headerPanel.getSearchText().trim().isEmpty()) {
+            searchExecutor.submit(headerPanel.getSearchText());
+        }
+    }
+
+    // With -Dravens.startup.metrics=true: time to first frame (first paint of
+    // the content area) and time to interactive (every card in and searchable),
+    // both from entering main
+    private static void reportStartup(int batches) {
+        long now = System.nanoTime();
+        long jvmToMain = ManagementFactory.getRuntimeMXBean().getUptime() - (now - mainStarted) / 1_000_000;
+        System.out.printf("Startup: first frame %.1f ms, roster loaded %.1f ms (background), "
+                + "interactive %.1f ms; %,d entries in %d batches; JVM start to main %d ms%n",
+            firstFrame == 0 ? Double.NaN : (firstFrame - mainStarted) / 1e6,
+            (rosterReady - mainStarted) / 1e6,
+            (now - mainStarted) / 1e6,
+            rosterQuery.size(), batches, jvmToMain);
+    }
+
+    // Filter cards by position and move them to the top; null shows everything
+    private static void filterByCategory(Position position) {
+        if (!interactive) {
+            filterPending = true;
+            pendingFilter = position;
+            return;
+        }
+        searchExecutor.cancelPending();
+        headerPanel.clearSearchField();
+        clearHighlights();
+        showOtherRosters(Collections.emptyList());
+
+        PerfEvents.Filter event = new PerfEvents.Filter();
+        event.begin();
+        long started = System.nanoTime();
+        if (rosterView != null) {
+            filterRows(position);
+            reportFilter(position, event, started, started);
             return;
         }
         
-        // Separate cards into matching and non-matching
-        List<ExpandableCard> matchingCards = new ArrayList<>();
-        List<ExpandableCard> nonMatchingCards = new ArrayList<>();
-        
-        for (ExpandableCard card : allCards) {
-            boolean matches = card.searchText.toLowerCase().contains(lowerCategory);
-            card.setVisible(true); // Show all cards
-            
-            if (matches) {
-                matchingCards.add(card);
+        // If "All Positions" selected, restore original content
+        if (position == null) {
+            // Only go back to disk if the CSV changed since it was loaded
+            if (repository.isStale()) {
+                loadContent(repository.getRoster());
+                contentPanel.revalidate();
             } else {
-                nonMatchingCards.add(card);
+                restoreOriginalLayout();
             }
+        } else {
+            // Matching and non-matching card ids straight from the position index
+            showGroupedCards(position.title, rosterQuery.position(position),
+                OTHER_POSITIONS, rosterQuery.otherPositions(position));
         }
+        showingRanked = false;
+
+        // Lay out once now rather than on the next event so the timing covers it
+        long reordered = System.nanoTime();
+        scrollPane.validate();
+        contentPanel.repaint();
+        reportFilter(position, event, started, reordered);
         
-        // Reorder the content panel
-        contentPanel.removeAll();
-        
-        // Add filtered section header
-        String filterTitle = "";
-        if (lowerCategory.equals("qb")) filterTitle = "QUARTERBACKS";
-        else if (lowerCategory.equals("rb")) filterTitle = "RUNNING BACKS";
-        else if (lowerCategory.equals("wr")) filterTitle = "WIDE RECEIVERS";
-        else if (lowerCategory.equals("te")) filterTitle = "TIGHT ENDS";
-        else if (lowerCategory.equals("ol")) filterTitle = "OFFENSIVE LINE";
-        else if (lowerCategory.equals("dl")) filterTitle = "DEFENSIVE LINE";
-        else if (lowerCategory.equals("lb")) filterTitle = "LINEBACKERS";
-        else if (lowerCategory.equals("db")) filterTitle = "DEFENSIVE BACKS";
-        else if (lowerCategory.equals("st")) filterTitle = "SPECIAL TEAMS";
-        else if (lowerCategory.equals("coach")) filterTitle = "COACHING STAFF";
-        
-        if (!filterTitle.isEmpty() && !matchingCards.isEmpty()) {
-            addSection(contentPanel, filterTitle, ColorScheme.RAVENS_GOLD);
+        // Scroll to top
+        SwingUtilities.invokeLater(() -> {
+            contentPanel.scrollRectToVisible(new Rectangle(0, 0, 1, 1));
+        });
+    }
+
+    // Titled group of cards, a rule, then the rest. One new order for the
+    // layout; the cards themselves stay where they are in the panel, so
+    // nothing is removed or re-added.
+    private static void showGroupedCards(String title, int[] first, String rule, int[] rest) {
+        List<Component> order = new ArrayList<>(first.length + rest.length + 2);
+        if (first.length > 0) {
+            filterTitle.setText(title);
+            order.add(filterTitle);
         }
-        
-        // Add matching cards first
-        for (ExpandableCard card : matchingCards) {
-            contentPanel.add(card);
-            contentPanel.add(Box.createRigidArea(new Dimension(0, 8)));
+        for (int id : first) {
+            order.add(allCards.get(id));
         }
-        
-        // Add a separator if there are both matching and non-matching
-        if (!matchingCards.isEmpty() && !nonMatchingCards.isEmpty()) {
-            JPanel separator = new JPanel();
-            separator.setLayout(new BorderLayout());
-            separator.setBackground(ColorScheme.BG_COLOR);
-            separator.setMaximumSize(new Dimension(Integer.MAX_VALUE, 40));
-            separator.setAlignmentX(Component.LEFT_ALIGNMENT);
-            separator.setBorder(BorderFactory.createEmptyBorder(20, 0, 10, 0));
-            
-            JLabel separatorLabel = new JLabel("─────  Other Positions  ─────");
-            separatorLabel.setFont(new Font("Arial", Font.ITALIC, 14));
-            separatorLabel.setForeground(new Color(150, 150, 160));
+        if (first.length > 0 && rest.length > 0) {
+            separatorLabel.setText(rule);
+            order.add(filterSeparator);
+        }
+        for (int id : rest) {
+            order.add(allCards.get(id));
+        }
+        showOrder(order);
+    }
+
+    // Every card by a stat, highest first, then the cards without it; null
+    // goes back to roster order. Like a position filter it clears the search.
+    private static void sortByStat(String label) {
+        RosterStats.Stat stat = label == null ? null : rosterQuery.stats().find(label);
+        if (stat == null) {
+            filterByCategory(null);
+            return;
+        }
+        searchExecutor.cancelPending();
+        headerPanel.clearSearchField();
+        clearHighlights();
+        showOtherRosters(Collections.emptyList());
+
+        long started = System.nanoTime();
+        int[] sorted = showSorted(stat);
+        long reordered = System.nanoTime();
+        if (rosterView == null) {
+            scrollPane.validate();
+            contentPanel.repaint();
+        }
+        showingRanked = false;
+        if (FILTER_TIMINGS) {
+            System.out.printf("sort by %s: %,d of %,d cards, reorder %.2f ms, layout %.2f ms%n",
+                stat.key, sorted.length, visibleIds.length,
+                (reordered - started) / 1e6, (System.nanoTime() - reordered) / 1e6);
+        }
+
+        SwingUtilities.invokeLater(() -> {
+            (rosterView != null ? (JComponent) rosterView : contentPanel).scrollRectToVisible(new Rectangle(0, 0, 1, 1));
+        });
+    }
+
+    // Cards with the stat highest first under a title, then the rest; returns
+    // the sorted ids
+    private static int[] showSorted(RosterStats.Stat stat) {
+        RosterStats stats = rosterQuery.stats();
+        int[] sorted = stats.sorted(stat, true);
+        int[] without = stats.without(rosterQuery.all(), stat);
+        String title = "BY " + stat.label.toUpperCase();
+        String rule = "─────  No " + stat.label + "  ─────";
+        if (rosterView != null) {
+            rosterView.showGrouped(title, sorted, without, rule);
+            visibleIds = rosterQuery.all();
+        } else {
+            showGroupedCards(title, sorted, rule, without);
+        }
+        return sorted;
+    }
+
+    // Labels of the most common stats, for the sort dropdown
+    private static List<String> sortOptions() {
+        List<String> labels = new ArrayList<>();
+        for (RosterStats.Stat stat : rosterQuery.stats().all()) {
+            if (labels.size() == SORT_OPTIONS) {
+                break;
+            }
+            labels.add(stat.label);
+        }
+        return labels;
+    }
+
+    // Commits the JFR event, and with -Dravens.filter.timings=true prints how
+    // long a filter switch spent building the new order and laying it out
+    private static void reportFilter(Position position, PerfEvents.Filter event, long started, long reordered) {
+        long done = System.nanoTime();
+        int shown = position == null ? visibleIds.length : rosterQuery.position(position).length;
+        event.position = position == null ? "all" : position.name();
+        event.matching = shown;
+        event.cards = visibleIds.length;
+        event.commit();
+        if (!FILTER_TIMINGS) {
+            return;
+        }
+        System.out.printf("filter %s: %,d of %,d cards, reorder %.2f ms, layout %.2f ms%n",
+            position == null ? "all" : position.name(), shown, visibleIds.length,
+            (reordered - started) / 1e6, (done - reordered) / 1e6);
+    }
+
+    // Same filter as above for the virtualized view, which just reorders its rows
+    private static void filterRows(Position position) {
+        if (position == null) {
+            if (repository.isStale()) {
+                loadContent(repository.getRoster());
+            } else {
+                rosterView.showAll();
+            }
+        } else {
+            rosterView.showGrouped(position.title, rosterQuery.position(position),
+                rosterQuery.otherPositions(position), OTHER_POSITIONS);
+        }
+        visibleIds = rosterQuery.all();
+
+        SwingUtilities.invokeLater(() -> {
+            rosterView.scrollRectToVisible(new Rectangle(0, 0, 1, 1));
+        });
+    }
+
+    // Build cards (or rows) and the search index for a freshly loaded roster
+    private static void loadContent(List<RosterEntry> roster) {
+        rosterQuery = new RosterQuery(roster);
+        highlighted = new BitSet(); // the old cards go away with their highlights
+        if (rosterView != null) {
+            populateRows();
+        } else {
+            allCards.clear();
+            contentPanel.removeAll();
+            rosterQuery.layout(new PanelSink(contentPanel));
+            addFilterComponents();
+        }
+        visibleIds = rosterQuery.all();
+        headerPanel.setSortOptions(sortOptions());
+    }
+
+    // Remember the section order just built, then add the filter header and
+    // separator, which only show up in filtered or ranked orders
+    private static void addFilterComponents() {
+        originalLayout = Arrays.asList(contentPanel.getComponents());
+        if (filterTitle == null) {
+            filterTitle = new JLabel();
+            filterTitle.setFont(ColorScheme.SECTION_FONT);
+            filterTitle.setForeground(ColorScheme.RAVENS_GOLD);
+            filterTitle.setBorder(ColorScheme.SECTION_PADDING);
+            filterTitle.setAlignmentX(Component.LEFT_ALIGNMENT);
+
+            filterSeparator = new JPanel();
+            filterSeparator.setLayout(new BorderLayout());
+            filterSeparator.setBackground(ColorScheme.BG_COLOR);
+            filterSeparator.setMaximumSize(new Dimension(Integer.MAX_VALUE, 40));
+            filterSeparator.setAlignmentX(Component.LEFT_ALIGNMENT);
+            filterSeparator.setBorder(ColorScheme.SEPARATOR_PADDING);
+            filterSeparator.putClientProperty(CardColumnLayout.GAP_AFTER, Boolean.TRUE);
+
+            separatorLabel = new JLabel(OTHER_POSITIONS);
+            separatorLabel.setFont(ColorScheme.SEPARATOR_FONT);
+            separatorLabel.setForeground(ColorScheme.SEPARATOR_TEXT);
             separatorLabel.setHorizontalAlignment(SwingConstants.CENTER);
-            
-            separator.add(separatorLabel, BorderLayout.CENTER);
-            contentPanel.add(separator);
-            contentPanel.add(Box.createRigidArea(new Dimension(0, 8)));
+            filterSeparator.add(separatorLabel, BorderLayout.CENTER);
         }
-        
-        // Add non-matching cards after
-        for (ExpandableCard card : nonMatchingCards) {
-            contentPanel.add(card);
-            contentPanel.add(Box.createRigidArea(new Dimension(0, 8)));
+        contentPanel.add(filterTitle);
+        contentPanel.add(filterSeparator);
+        cardLayout.setOrder(originalLayout);
+    }
+
+    // Put the cached components back in their original section order
+    private static void restoreOriginalLayout() {
+        showOrder(originalLayout);
+    }
+
+    // Show every card in the given order. Search may have hidden some, so
+    // they come back first; the reorder itself is a single layout pass.
+    private static void showOrder(List<Component> order) {
+        for (int id = 0; id < allCards.size(); id++) {
+            ExpandableCard card = allCards.get(id);
+            if (!card.isVisible()) {
+                card.setVisible(true);
+            }
         }
-        
+        cardLayout.setOrder(order);
         contentPanel.revalidate();
-        contentPanel.repaint();
-        
-        // Scroll to top
-        SwingUtilities.invokeLater(() -> {
-            contentPanel.scrollRectToVisible(new Rectangle(0, 0, 1, 1));
+        visibleIds = rosterQuery.all();
+    }
+
+    private static void startWatcher() {
+        RosterWatcher watcher = new RosterWatcher(repository, 250, (roster, diff) -> {
+            System.out.println("Roster file changed: " + diff);
+            // Index and stats are built here on the watcher thread; the EDT only moves cards
+            RosterQuery query = new RosterQuery(roster);
+            SwingUtilities.invokeLater(() -> applyRosterChange(query, diff));
         });
+        try {
+            watcher.start(rosterQuery.entries());
+        } catch (IOException e) {
+            System.err.println("Could not watch " + repository.getPath() + ": " + e.getMessage());
+        }
     }
 
-    private static void populateContent(JPanel panel, List<RosterEntry> roster) {
-        // Group entries by category
-        Map<String, List<RosterEntry>> categorizedRoster = new LinkedHashMap<>();
-        for (RosterEntry entry : roster) {
-            categorizedRoster.computeIfAbsent(entry.category, k -> new ArrayList<>()).add(entry);
+    // Apply a reloaded roster in place: only added and removed entries gain or
+    // lose a card, updated ones get new text and the rest are reused as-is, so
+    // expand state and scroll position survive the reload. Whatever filter,
+    // sort or search was on screen is then put back over the new roster.
+    private static void applyRosterChange(RosterQuery query, RosterDiff diff) {
+        searchExecutor.cancelPending();
+        Point scroll = scrollPane.getViewport().getViewPosition();
+
+        clearHighlights(); // reused cards get new ids, the search below marks them again
+        RosterQuery previous = rosterQuery;
+        rosterQuery = query;
+        if (rosterView != null) {
+            applyRowChange(previous, diff);
+        } else {
+            applyCardChange(previous, diff);
         }
+        headerPanel.setSortOptions(sortOptions());
+        showingRanked = false;
+        showCurrentView();
 
-        // Track major sections for proper headers
-        String lastMajorSection = "";
-        
-        // Add sections
-        for (Map.Entry<String, List<RosterEntry>> categoryEntry : categorizedRoster.entrySet()) {
-            String category = categoryEntry.getKey();
-            
-            // Determine major section (before the hyphen)
-            String majorSection = category.contains(" - ") ? 
-                category.substring(0, category.indexOf(" - ")) : category;
-            
-            // Add major section header if it's new
-            if (!majorSection.equals(lastMajorSection)) {
-                addSection(panel, majorSection.toUpperCase(), ColorScheme.RAVENS_GOLD);
-                lastMajorSection = majorSection;
-            }
-            
-            // Add subsection if there's a subcategory
-            if (category.contains(" - ")) {
-                String subSection = category.substring(category.indexOf(" - ") + 3);
-                addSubsection(panel, subSection);
-            }
-            
-            // Add all entries in this category
-            for (RosterEntry entry : categoryEntry.getValue()) {
-                // Extract position/role from name if it exists
-                String displayName = entry.name;
-                String subtitle = "";
-                
-                if (entry.name.contains("–")) {
-                    String[] parts = entry.name.split("–", 2);
-                    displayName = parts[0].trim();
-                    subtitle = parts[1].trim();
-                } else if (entry.name.contains("-")) {
-                    String[] parts = entry.name.split("-", 2);
-                    displayName = parts[0].trim();
-                    subtitle = parts[1].trim();
+        // Keep whatever the user was searching for
+        String search = headerPanel.getSearchText();
+        if (!search.trim().isEmpty()) {
+            applySearchResult(search, rosterQuery.search(search));
+        }
+
+        // Lay out now so the old scroll offset can be restored against the new height
+        scrollPane.validate();
+        JViewport viewport = scrollPane.getViewport();
+        int maxY = Math.max(0, viewport.getView().getHeight() - viewport.getExtentSize().height);
+        viewport.setViewPosition(new Point(scroll.x, Math.min(scroll.y, maxY)));
+        scrollPane.repaint();
+    }
+
+    // Cards for the new roster from the ones in the panel: removed entries'
+    // cards come out and added ones go in, each with a single remove or add,
+    // and the section order is one new list for the layout
+    private static void applyCardChange(RosterQuery previous, RosterDiff diff) {
+        List<RosterEntry> oldEntries = previous.entries();
+        List<String> oldKeys = RosterDiff.keys(oldEntries);
+        Map<String, ExpandableCard> cards = new HashMap<>(oldKeys.size() * 2);
+        Map<RosterEntry, String> oldKeyOf = new IdentityHashMap<>();
+        for (int i = 0; i < oldKeys.size(); i++) {
+            cards.put(oldKeys.get(i), allCards.get(i));
+            oldKeyOf.put(oldEntries.get(i), oldKeys.get(i));
+        }
+        for (RosterEntry entry : diff.removed) {
+            ExpandableCard card = cards.remove(oldKeyOf.get(entry));
+            if (card != null) {
+                contentPanel.remove(card);
+            }
+        }
+
+        // Section headers by title, in case a category came or went
+        Map<String, Deque<Component>> headers = new HashMap<>();
+        for (Component c : originalLayout) {
+            Object key = ((JComponent) c).getClientProperty(HEADER_KEY);
+            if (key != null) {
+                headers.computeIfAbsent((String) key, k -> new ArrayDeque<>()).add(c);
+            }
+        }
+
+        List<RosterEntry> entries = rosterQuery.entries();
+        List<String> keys = RosterDiff.keys(entries);
+        Set<RosterEntry> added = Collections.newSetFromMap(new IdentityHashMap<>());
+        added.addAll(diff.added);
+        Set<RosterEntry> updated = Collections.newSetFromMap(new IdentityHashMap<>());
+        updated.addAll(diff.updated);
+
+        // Cards are visited in id order, so allCards is rebuilt by appending
+        List<Component> order = new ArrayList<>(entries.size() + 64);
+        allCards.clear();
+        rosterQuery.layout(new RosterQuery.Visitor() {
+            public void section(String title) {
+                order.add(header("section\u0000" + title, () -> newSection(title, ColorScheme.RAVENS_GOLD)));
+            }
+            public void subsection(String title) {
+                order.add(header("subsection\u0000" + title, () -> newSubsection(title)));
+            }
+            private Component header(String key, Supplier<JLabel> create) {
+                Deque<Component> reusable = headers.get(key);
+                Component label = reusable != null ? reusable.poll() : null;
+                if (label == null) {
+                    label = create.get();
+                    contentPanel.add(label);
+                }
+                return label;
+            }
+            public void card(RosterEntry entry, boolean isPlayer) {
+                String key = keys.get(allCards.size());
+                ExpandableCard card = added.contains(entry) ? null : cards.get(key);
+                if (card == null) {
+                    card = new ExpandableCard(entry.displayName, entry.subtitle, entry.details, isPlayer);
+                    contentPanel.add(card);
+                } else if (updated.contains(entry)) {
+                    card.update(entry.displayName, entry.subtitle, entry.details);
                 }
-                
-                boolean isPlayer = category.toLowerCase().contains("player");
-                addCard(panel, displayName, subtitle, entry.details, isPlayer);
+                allCards.add(card);
+                order.add(card);
+            }
+        });
+        for (Deque<Component> unused : headers.values()) {
+            for (Component label : unused) {
+                contentPanel.remove(label);
             }
         }
+        originalLayout = order;
+    }
+
+    // Rows are cheap, so the virtualized view gets a fresh list that keeps
+    // unchanged rows and the expand state of updated ones
+    private static void applyRowChange(RosterQuery previous, RosterDiff diff) {
+        List<String> oldKeys = RosterDiff.keys(previous.entries());
+        Map<String, VirtualRosterView.Row> existing = new HashMap<>();
+        for (int i = 0; i < oldKeys.size(); i++) {
+            existing.put(oldKeys.get(i), rosterView.getCards().get(i));
+        }
+        List<RosterEntry> entries = rosterQuery.entries();
+        List<String> keys = RosterDiff.keys(entries);
+        Map<RosterEntry, String> keyOf = new IdentityHashMap<>();
+        for (int i = 0; i < entries.size(); i++) {
+            keyOf.put(entries.get(i), keys.get(i));
+        }
+        Set<RosterEntry> updated = Collections.newSetFromMap(new IdentityHashMap<>());
+        updated.addAll(diff.updated);
+
+        List<VirtualRosterView.Row> rows = new ArrayList<>();
+        rosterQuery.layout(new RowSink(rows) {
+            public void card(RosterEntry entry, boolean isPlayer) {
+                VirtualRosterView.Row row = existing.get(keyOf.get(entry));
+                if (row == null || updated.contains(entry)) {
+                    VirtualRosterView.Row fresh = VirtualRosterView.Row.card(
+                        entry.displayName, entry.subtitle, entry.details, isPlayer);
+                    fresh.setExpanded(row != null && row.isExpanded());
+                    row = fresh;
+                }
+                rows.add(row);
+            }
+        });
+        rosterView.setRows(rows);
+    }
+
+    // The position filter or stat sort picked in the header, over the current
+    // roster; roster order when neither is picked. Unlike filterByCategory and
+    // sortByStat this leaves the search box and scroll position alone.
+    private static void showCurrentView() {
+        Position position = headerPanel.getSelectedPosition();
+        String sort = headerPanel.getSelectedSort();
+        RosterStats.Stat stat = sort == null ? null : rosterQuery.stats().find(sort);
+        if (position != null) {
+            if (rosterView != null) {
+                rosterView.showGrouped(position.title, rosterQuery.position(position),
+                    rosterQuery.otherPositions(position), OTHER_POSITIONS);
+            } else {
+                showGroupedCards(position.title, rosterQuery.position(position),
+                    OTHER_POSITIONS, rosterQuery.otherPositions(position));
+            }
+        } else if (stat != null) {
+            showSorted(stat);
+        } else if (rosterView != null) {
+            rosterView.showAll();
+        } else {
+            showOrder(originalLayout);
+        }
+        visibleIds = rosterQuery.all();
+    }
+
+    // Builds real components into a panel
+    private static class PanelSink implements RosterQuery.Visitor {
+        final JPanel panel;
+
+        PanelSink(JPanel panel) {
+            this.panel = panel;
+        }
+
+        public void section(String title) { addSection(panel, title, ColorScheme.RAVENS_GOLD); }
+        public void subsection(String title) { addSubsection(panel, title); }
+        public void card(RosterEntry entry, boolean isPlayer) {
+            addCard(panel, new ExpandableCard(entry.displayName, entry.subtitle, entry.details, isPlayer));
+        }
+    }
+
+    // Builds lightweight rows for the virtualized view
+    private static class RowSink implements RosterQuery.Visitor {
+        final List<VirtualRosterView.Row> rows;
+
+        RowSink(List<VirtualRosterView.Row> rows) {
+            this.rows = rows;
+        }
+
+        public void section(String title) { rows.add(VirtualRosterView.Row.section(title)); }
+        public void subsection(String title) { rows.add(VirtualRosterView.Row.subsection(title)); }
+        public void card(RosterEntry entry, boolean isPlayer) {
+            rows.add(VirtualRosterView.Row.card(entry.displayName, entry.subtitle, entry.details, isPlayer));
+        }
+    }
+
+    private static void populateRows() {
+        List<VirtualRosterView.Row> rows = new ArrayList<>();
+        rosterQuery.layout(new RowSink(rows));
+        rosterView.setRows(rows);
     }
 
     private static void addSection(JPanel panel, String title, Color color) {
+        panel.add(newSection(title, color));
+    }
+
+    private static void addSubsection(JPanel panel, String title) {
+        panel.add(newSubsection(title));
+    }
+
+    // Headers carry HEADER_KEY so a roster reload can find and reuse them
+    private static JLabel newSection(String title, Color color) {
         JLabel label = new JLabel(title);
-        label.setFont(new Font("Arial", Font.BOLD, 24));
+        label.putClientProperty(HEADER_KEY, "section\u0000" + title);
+        label.setFont(ColorScheme.SECTION_FONT);
         label.setForeground(color);
-        label.setBorder(BorderFactory.createEmptyBorder(30, 0, 15, 0));
+        label.setBorder(ColorScheme.SECTION_PADDING);
         label.setAlignmentX(Component.LEFT_ALIGNMENT);
-        panel.add(label);
+        return label;
     }
 
-    private static void addSubsection(JPanel panel, String title) {
+    private static JLabel newSubsection(String title) {
         JLabel label = new JLabel(title);
-        label.setFont(new Font("Arial", Font.BOLD, 18));
+        label.putClientProperty(HEADER_KEY, "subsection\u0000" + title);
+        label.setFont(ColorScheme.SUBSECTION_FONT);
         label.setForeground(ColorScheme.RAVENS_PURPLE);
-        label.setBorder(BorderFactory.createEmptyBorder(20, 0, 10, 0));
+        label.setBorder(ColorScheme.SUBSECTION_PADDING);
         label.setAlignmentX(Component.LEFT_ALIGNMENT);
-        panel.add(label);
+        return label;
     }
 
-    private static void addCard(JPanel panel, String name, String subtitle, String details, boolean isPlayer) {
-        ExpandableCard card = new ExpandableCard(name, subtitle, details, isPlayer);
-
+    // The gap below each card comes from CardColumnLayout
+    private static void addCard(JPanel panel, ExpandableCard card) {
         allCards.add(card);
         panel.add(card);
-        panel.add(Box.createRigidArea(new Dimension(0, 8)));
     }
 
+    // Runs on the EDT per keystroke; matching happens on the search worker
     private static void filterContent(String query) {
-        String lowerQuery = query.toLowerCase().trim();
-        for (ExpandableCard card : allCards) {
-            boolean matches = lowerQuery.isEmpty() || 
-                card.searchText.toLowerCase().contains(lowerQuery);
-            card.setVisible(matches);
+        searchExecutor.submit(query);
+    }
+
+    // Called once on the EDT with the final result of a debounced search
+    private static void applySearchResult(String query, int[] matches) {
+        if (!interactive) {
+            return; // finishLoading searches again once every card is in
         }
-        contentPanel.revalidate();
-        contentPanel.repaint();
+        PerfEvents.Search event = new PerfEvents.Search();
+        event.begin();
+        showSearchResult(query, matches);
+        event.phase = "apply";
+        event.query = query;
+        event.matches = matches.length;
+        event.commit();
+    }
+
+    private static void showSearchResult(String query, int[] matches) {
+        ShardHits others = otherRosterHits;
+        if (others != null && others.query.equals(query)) {
+            showOtherRosters(others.hits);
+        }
+        if (RANKED_SEARCH) {
+            if (!query.trim().isEmpty()) {
+                showRanked(query, matches);
+                return;
+            }
+            if (showingRanked) {
+                // Cleared the search: back to the section layout with every card
+                showingRanked = false;
+                if (rosterView != null) {
+                    rosterView.showAll();
+                } else {
+                    restoreOriginalLayout();
+                    contentPanel.repaint();
+                }
+                visibleIds = rosterQuery.all();
+            }
+        }
+
+        if (rosterView != null) {
+            rosterView.showCards(matches);
+            visibleIds = matches;
+            return;
+        }
+
+        // Walk the old and new sorted id sets together and only touch cards that changed
+        boolean changed = false;
+        int i = 0, j = 0;
+        while (i < visibleIds.length || j < matches.length) {
+            if (j >= matches.length || (i < visibleIds.length && visibleIds[i] < matches[j])) {
+                allCards.get(visibleIds[i++]).setVisible(false);
+                changed = true;
+            } else if (i >= visibleIds.length || matches[j] < visibleIds[i]) {
+                allCards.get(matches[j++]).setVisible(true);
+                changed = true;
+            } else {
+                i++;
+                j++;
+            }
+        }
+        visibleIds = matches;
+
+        if (changed) {
+            contentPanel.revalidate();
+            contentPanel.repaint();
+        }
+        updateHighlights(query, matches);
+    }
+
+    // Runs on the search worker. While real cards are shown, the match offsets
+    // for highlighting are worked out here too, so the EDT only applies them.
+    private static int[] match(String query) {
+        RosterQuery q = rosterQuery;
+        if (q == null) {
+            return new int[0]; // still loading; finishLoading searches again
+        }
+        PerfEvents.Search event = new PerfEvents.Search();
+        event.begin();
+        // A boolean query is an exact set, so it filters even in ranked mode
+        BooleanQuery parsed = BooleanQuery.parse(query);
+        int[] ids = parsed != null ? q.search(parsed)
+            : RANKED_SEARCH && !query.trim().isEmpty() ? q.ranked(query, RANKED_RESULTS)
+            : q.search(query);
+        if (rosterView == null) {
+            searchHighlights = new HighlightBatch(q, ids, highlightsFor(q, query, ids));
+        }
+        if (otherRostersPanel != null && rosterView == null) {
+            otherRosterHits = new ShardHits(query, catalog.search(query, false));
+        }
+        event.phase = "match";
+        event.query = query;
+        event.matches = ids.length;
+        event.commit();
+        return ids;
+    }
+
+    // Matches from the other shards under one header, a few cards per shard
+    private static void showOtherRosters(List<RosterCatalog.Hits> hits) {
+        if (otherRostersPanel == null || (hits.isEmpty() && otherRostersPanel.getComponentCount() == 0)) {
+            return;
+        }
+        otherRostersPanel.removeAll();
+        if (!hits.isEmpty()) {
+            addSection(otherRostersPanel, OTHER_ROSTERS, ColorScheme.RAVENS_GOLD);
+        }
+        for (RosterCatalog.Hits h : hits) {
+            addSubsection(otherRostersPanel, h.shard.label() + " (" + h.entries.size() + ")");
+            int shown = Math.min(h.entries.size(), OTHER_ROSTER_CARDS);
+            for (RosterEntry entry : h.entries.subList(0, shown)) {
+                otherRostersPanel.add(new ExpandableCard(entry.displayName, entry.subtitle, entry.details,
+                    entry.category.toLowerCase().contains("player")));
+            }
+            if (shown < h.entries.size()) {
+                JLabel more = new JLabel(String.format("and %,d more", h.entries.size() - shown));
+                more.setFont(ColorScheme.SEPARATOR_FONT);
+                more.setForeground(ColorScheme.SEPARATOR_TEXT);
+                otherRostersPanel.add(more);
+            }
+        }
+        otherRostersPanel.revalidate();
+        otherRostersPanel.repaint();
+    }
+
+    // Other-shard matches for one query, matched to its result by the query text
+    private static class ShardHits {
+        final String query;
+        final List<RosterCatalog.Hits> hits;
+
+        ShardHits(String query, List<RosterCatalog.Hits> hits) {
+            this.query = query;
+            this.hits = hits;
+        }
+    }
+
+    // Null when nothing should be highlighted
+    private static RosterQuery.Highlights[] highlightsFor(RosterQuery q, String query, int[] ids) {
+        if (query.trim().length() < MIN_HIGHLIGHT_LENGTH) {
+            return null;
+        }
+        RosterQuery.HighlightTerms terms = RosterQuery.highlightTerms(query);
+        if (terms == null) {
+            return null;
+        }
+        RosterQuery.Highlights[] highlights = new RosterQuery.Highlights[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            highlights[i] = q.highlights(ids[i], terms);
+        }
+        return highlights;
+    }
+
+    // Mark where the query matches on every shown card. Cards whose spans are
+    // unchanged skip the repaint, and cards no longer matching are cleared.
+    private static void updateHighlights(String query, int[] ids) {
+        if (rosterView != null) {
+            return;
+        }
+        HighlightBatch batch = searchHighlights;
+        RosterQuery.Highlights[] highlights = batch != null && batch.ids == ids && batch.query == rosterQuery
+            ? batch.highlights
+            : highlightsFor(rosterQuery, query, ids);
+
+        BitSet next = new BitSet();
+        if (highlights != null) {
+            for (int i = 0; i < ids.length; i++) {
+                RosterQuery.Highlights h = highlights[i];
+                if (!h.isEmpty()) {
+                    allCards.get(ids[i]).setHighlights(h.name, h.subtitle, h.details);
+                    next.set(ids[i]);
+                }
+            }
+        }
+        for (int id = highlighted.nextSetBit(0); id >= 0; id = highlighted.nextSetBit(id + 1)) {
+            if (!next.get(id) && id < allCards.size()) {
+                allCards.get(id).clearHighlights();
+            }
+        }
+        highlighted = next;
+    }
+
+    private static void clearHighlights() {
+        updateHighlights("", new int[0]);
+    }
+
+    // Highlights for one search result, matched to it by identity of the id array
+    private static class HighlightBatch {
+        final RosterQuery query;
+        final int[] ids;
+        final RosterQuery.Highlights[] highlights;
+
+        HighlightBatch(RosterQuery query, int[] ids, RosterQuery.Highlights[] highlights) {
+            this.query = query;
+            this.ids = ids;
+            this.highlights = highlights;
+        }
+    }
+
+    // Best matches in score order under one header; everything else is hidden
+    private static void showRanked(String query, int[] rankedIds) {
+        showingRanked = true;
+        if (rosterView != null) {
+            rosterView.showGrouped(BEST_MATCHES, rankedIds, new int[0], OTHER_POSITIONS);
+        } else {
+            List<Component> order = new ArrayList<>(rankedIds.length + 1);
+            if (rankedIds.length > 0) {
+                filterTitle.setText(BEST_MATCHES);
+                order.add(filterTitle);
+            }
+            for (int id : rankedIds) {
+                order.add(allCards.get(id));
+            }
+            showOrder(order);
+            contentPanel.repaint();
+        }
+
+        // visibleIds stays sorted for the incremental path
+        visibleIds = rankedIds.clone();
+        Arrays.sort(visibleIds);
+        updateHighlights(query, rankedIds);
+
+        SwingUtilities.invokeLater(() -> {
+            (rosterView != null ? (JComponent) rosterView : contentPanel).scrollRectToVisible(new Rectangle(0, 0, 1, 1));
+        });
     }
 
     private static void toggleAll(boolean expand) {
-        for (ExpandableCard card : allCards) {
-            if (card.isVisible()) {
-                card.setExpanded(expand);
+        if (!interactive) {
+            return;
+        }
+        PerfEvents.ToggleAll event = new PerfEvents.ToggleAll();
+        event.begin();
+        if (rosterView != null) {
+            rosterView.setAllExpanded(expand);
+        } else {
+            // Only the cards on screen: a ranked view parks the rest at zero
+            // size, still visible, and expanding those would animate and
+            // measure text for thousands of cards nobody can see
+            for (int id : visibleIds) {
+                allCards.get(id).setExpanded(expand);
             }
         }
+        event.expand = expand;
+        event.cards = visibleIds.length;
+        event.commit();
     }
 }
\ No newline at end of file
@@ -0,0 +1,69 @@
+package bench;
+
+import classes.RosterEntry;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import misc.CsvParser;
+import misc.MappedCsvReader;
+
+public class CsvLoadBenchmark {
+    // Throughput of the line-based CsvParser against MappedCsvReader.
+    //
+    //   java -Xmx4g -cp out bench.CsvLoadBenchmark [sizeMB] [iterations]
+    //
+    // Generates a roster CSV of the requested size (default 300MB) in the temp
+    // directory, then reports MB/s for each loader after one warmup pass.
+
+    public static void main(String[] args) throws IOException {
+        long sizeMb = args.length > 0 ? Long.parseLong(args[0]) : 300;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+
+        Path file = Files.createTempFile("roster-bench", ".csv");
+        try {
+            long rows = RosterGenerator.writeCsvOfSize(file, sizeMb << 20, 42);
+            long bytes = Files.size(file);
+            System.out.printf("Generated %,d rows, %.1f MB%n", rows, bytes / 1048576.0);
+
+            String path = file.toString();
+            run("CsvParser.loadRosterFromCSV", bytes, iterations, () -> CsvParser.loadRosterFromCSV(path).size());
+            run("MappedCsvReader -> list", bytes, iterations, () -> {
+                List<RosterEntry> list = new ArrayList<>();
+                MappedCsvReader.stream(Paths.get(path), list::add);
+                return list.size();
+            });
+            run("MappedCsvReader streaming", bytes, iterations, () -> {
+                long[] nameChars = new long[1];
+                long n = MappedCsvReader.stream(Paths.get(path), e -> nameChars[0] += e.name.length());
+                return nameChars[0] > 0 ? n : 0;
+            });
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static void run(String label, long bytes, int iterations, Task task) throws IOException {
+        task.run(); // warmup
+        long best = Long.MAX_VALUE;
+        long total = 0;
+        long entries = 0;
+        for (int i = 0; i < iterations; i++) {
+            System.gc();
+            long start = System.nanoTime();
+            entries = task.run();
+            long elapsed = System.nanoTime() - start;
+            best = Math.min(best, elapsed);
+            total += elapsed;
+        }
+        double mb = bytes / 1048576.0;
+        System.out.printf("%-30s %,12d entries  best %8.1f ms (%7.1f MB/s)  avg %8.1f ms%n",
+            label, entries, best / 1e6, mb / (best / 1e9), total / 1e6 / iterations);
+    }
+
+    interface Task {
+        long run() throws IOException;
+    }
+}
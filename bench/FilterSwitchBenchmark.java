@@ -0,0 +1,118 @@
+package bench;
+
+import classes.Position;
+import classes.RosterEntry;
+import java.awt.Component;
+import java.awt.Dimension;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.swing.Box;
+import javax.swing.BoxLayout;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.SwingUtilities;
+import misc.RosterQuery;
+import ui.CardColumnLayout;
+import ui.ExpandableCard;
+
+public class FilterSwitchBenchmark {
+    // Cost of one position filter switch in the card view, on the EDT and
+    // including the layout pass: the old BoxLayout approach that removes every
+    // card and adds it back with a spacer, against CardColumnLayout, which only
+    // gets a new order.
+    //
+    //   java -Djava.awt.headless=true -cp out bench.FilterSwitchBenchmark [cards...]
+    //
+    // The old approach grows quadratically: at 50,000 cards one switch takes
+    // minutes, so run that size with -Dbench.millis=1.
+
+    private static final Position[] CYCLE = {
+        Position.QB, Position.WR, Position.OL, Position.DL, Position.LB, Position.DB
+    };
+
+    public static void main(String[] args) throws Exception {
+        int[] sizes = args.length > 0
+            ? Arrays.stream(args).mapToInt(Integer::parseInt).toArray()
+            : new int[] {1_000, 10_000, 50_000};
+        Harness harness = Harness.fromSystemProperties();
+
+        for (int cards : sizes) {
+            List<RosterEntry> roster = RosterGenerator.generate(cards, 42);
+            RosterQuery query = new RosterQuery(roster);
+            harness.out().printf("%n== %,d cards ==%n", cards);
+            SwingUtilities.invokeAndWait(() -> {
+                List<ExpandableCard> boxCards = build(roster);
+                JPanel boxPanel = new JPanel();
+                boxPanel.setLayout(new BoxLayout(boxPanel, BoxLayout.Y_AXIS));
+                JScrollPane boxScroll = scrollPane(boxPanel);
+                int[] next = {0};
+                harness.run("removeAll + re-add (BoxLayout)", 0, () -> {
+                    Position position = CYCLE[next[0]++ % CYCLE.length];
+                    boxPanel.removeAll();
+                    boxPanel.add(new JLabel(position.title));
+                    for (int id : query.position(position)) {
+                        boxPanel.add(boxCards.get(id));
+                        boxPanel.add(Box.createRigidArea(new Dimension(0, 8)));
+                    }
+                    boxPanel.add(new JLabel("Other Positions"));
+                    for (int id : query.otherPositions(position)) {
+                        boxPanel.add(boxCards.get(id));
+                        boxPanel.add(Box.createRigidArea(new Dimension(0, 8)));
+                    }
+                    boxScroll.validate();
+                    return boxPanel.getHeight();
+                });
+
+                List<ExpandableCard> orderedCards = build(roster);
+                CardColumnLayout layout = new CardColumnLayout(8);
+                JPanel orderedPanel = new JPanel(layout);
+                JLabel title = new JLabel();
+                JLabel separator = new JLabel("Other Positions");
+                orderedCards.forEach(orderedPanel::add);
+                orderedPanel.add(title);
+                orderedPanel.add(separator);
+                JScrollPane orderedScroll = scrollPane(orderedPanel);
+                next[0] = 0;
+                harness.run("setOrder (CardColumnLayout)", 0, () -> {
+                    Position position = CYCLE[next[0]++ % CYCLE.length];
+                    int[] matching = query.position(position);
+                    int[] others = query.otherPositions(position);
+                    List<Component> order = new ArrayList<>(matching.length + others.length + 2);
+                    title.setText(position.title);
+                    order.add(title);
+                    for (int id : matching) {
+                        order.add(orderedCards.get(id));
+                    }
+                    order.add(separator);
+                    for (int id : others) {
+                        order.add(orderedCards.get(id));
+                    }
+                    layout.setOrder(order);
+                    orderedPanel.revalidate();
+                    orderedScroll.validate();
+                    return orderedPanel.getHeight();
+                });
+            });
+        }
+        harness.out().println("(sink " + harness.sink() + ")");
+        System.exit(0);
+    }
+
+    private static List<ExpandableCard> build(List<RosterEntry> roster) {
+        List<ExpandableCard> cards = new ArrayList<>(roster.size());
+        for (RosterEntry entry : roster) {
+            cards.add(new ExpandableCard(entry.displayName, entry.subtitle, entry.details, true));
+        }
+        return cards;
+    }
+
+    private static JScrollPane scrollPane(JPanel panel) {
+        JScrollPane scrollPane = new JScrollPane(panel);
+        scrollPane.setSize(800, 600);
+        // Lightweight peers even when headless, otherwise validate() skips the layout
+        scrollPane.addNotify();
+        return scrollPane;
+    }
+}
@@ -0,0 +1,144 @@
+package bench;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+
+public class Harness {
+    // Small JMH-style runner: time-boxed warmup and measurement iterations,
+    // results consumed into a sink so the JIT can't drop the work, and
+    // allocation per operation from the thread's allocated-bytes counter.
+    //
+    // That counter only covers the calling thread: work handed to a pool
+    // (ForkJoin workers, executors) allocates elsewhere and isn't seen, so
+    // runMultiThreaded reports time only. For allocation across every thread
+    // use the JMH benchmarks in jmh/ with -prof gc.
+    //
+    // Anything the code under test prints is swallowed while measuring.
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final PrintStream out = System.out;
+    private final int warmupIterations;
+    private final int measureIterations;
+    private final long iterationMillis;
+    private long sink;
+
+    public Harness(int warmupIterations, int measureIterations, long iterationMillis) {
+        this.warmupIterations = warmupIterations;
+        this.measureIterations = measureIterations;
+        this.iterationMillis = iterationMillis;
+    }
+
+    // Configured from -Dbench.warmup, -Dbench.iterations and -Dbench.millis
+    public static Harness fromSystemProperties() {
+        return new Harness(
+            Integer.getInteger("bench.warmup", 3),
+            Integer.getInteger("bench.iterations", 5),
+            Long.getLong("bench.millis", 1000));
+    }
+
+    public PrintStream out() {
+        return out;
+    }
+
+    // bytesPerOp scales throughput into MB/s when the operation processes a known amount of data
+    public Result run(String name, long bytesPerOp, Op op) {
+        return run(name, bytesPerOp, op, true);
+    }
+
+    // For operations that do their work on other threads; no allocation figure
+    public Result runMultiThreaded(String name, long bytesPerOp, Op op) {
+        return run(name, bytesPerOp, op, false);
+    }
+
+    private Result run(String name, long bytesPerOp, Op op, boolean allocationMeasured) {
+        PrintStream original = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            for (int i = 0; i < warmupIterations; i++) {
+                iteration(op);
+            }
+            long ops = 0;
+            long nanos = 0;
+            long allocated = 0;
+            long best = Long.MAX_VALUE;
+            for (int i = 0; i < measureIterations; i++) {
+                long[] it = iteration(op);
+                ops += it[0];
+                nanos += it[1];
+                allocated += it[2];
+                best = Math.min(best, it[1] / it[0]);
+            }
+            Result result = new Result(name, ops, nanos, allocationMeasured ? allocated : -1, best, bytesPerOp);
+            original.println(result);
+            return result;
+        } finally {
+            System.setOut(original);
+        }
+    }
+
+    // {ops, nanos, allocated bytes} for one time-boxed iteration, at least one op
+    private long[] iteration(Op op) {
+        long thread = Thread.currentThread().getId();
+        long deadline = System.nanoTime() + iterationMillis * 1_000_000;
+        long allocStart = THREADS.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        long ops = 0;
+        long now;
+        do {
+            try {
+                sink += op.run();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+            ops++;
+            now = System.nanoTime();
+        } while (now < deadline);
+        long allocated = THREADS.getThreadAllocatedBytes(thread) - allocStart;
+        return new long[] {ops, now - start, allocated};
+    }
+
+    public long sink() {
+        return sink;
+    }
+
+    public interface Op {
+        long run() throws Exception;
+    }
+
+    public static class Result {
+        public final String name;
+        public final long ops;
+        public final long nanos;
+        public final long allocatedBytes; // -1 when not measured
+        public final long bestNanosPerOp;
+        public final long bytesPerOp;
+
+        Result(String name, long ops, long nanos, long allocatedBytes, long bestNanosPerOp, long bytesPerOp) {
+            this.name = name;
+            this.ops = ops;
+            this.nanos = nanos;
+            this.allocatedBytes = allocatedBytes;
+            this.bestNanosPerOp = bestNanosPerOp;
+            this.bytesPerOp = bytesPerOp;
+        }
+
+        public double nanosPerOp() {
+            return (double) nanos / ops;
+        }
+
+        @Override
+        public String toString() {
+            double perOp = nanosPerOp();
+            String time = perOp >= 1e6 ? String.format("%10.2f ms/op", perOp / 1e6)
+                : String.format("%10.2f us/op", perOp / 1e3);
+            String rate = bytesPerOp > 0
+                ? String.format("  %8.1f MB/s", bytesPerOp / 1048576.0 / (perOp / 1e9)) : "";
+            String alloc = allocatedBytes >= 0 ? String.format("%,14d B/op alloc", allocatedBytes / ops)
+                : String.format("%14s B/op alloc", "n/a");
+            return String.format("%-48s %s%s  %s  (%d ops)", name, time, rate, alloc, ops);
+        }
+    }
+}
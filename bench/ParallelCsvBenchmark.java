@@ -0,0 +1,82 @@
+package bench;
+
+import classes.RosterEntry;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import misc.MappedCsvReader;
+import misc.ParallelCsvLoader;
+
+public class ParallelCsvBenchmark {
+    // Scaling of ParallelCsvLoader from one worker up to every available core.
+    //
+    //   java -Xmx6g -cp out bench.ParallelCsvBenchmark [sizeMB] [iterations]
+    //
+    // Also checks that every parallel run returns entries in the same order as
+    // the single-threaded MappedCsvReader, and prints per-chunk timings for the
+    // widest run.
+
+    public static void main(String[] args) throws IOException {
+        long sizeMb = args.length > 0 ? Long.parseLong(args[0]) : 300;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        Path file = Files.createTempFile("roster-bench", ".csv");
+        try {
+            long rows = RosterGenerator.writeCsvOfSize(file, sizeMb << 20, 42);
+            double mb = Files.size(file) / 1048576.0;
+            System.out.printf("Generated %,d rows, %.1f MB, %d cores%n", rows, mb, cores);
+
+            List<RosterEntry> expected = new ArrayList<>();
+            long start = System.nanoTime();
+            MappedCsvReader.stream(file, expected::add);
+            double sequentialMs = (System.nanoTime() - start) / 1e6;
+            System.out.printf("sequential                 %8.1f ms  (%7.1f MB/s)%n", sequentialMs, mb / (sequentialMs / 1000));
+
+            double baseline = 0;
+            ParallelCsvLoader.Result last = null;
+            for (int workers = 1; workers <= cores; workers *= 2) {
+                ForkJoinPool pool = new ForkJoinPool(workers);
+                try {
+                    ParallelCsvLoader.load(file, workers * 4, pool); // warmup
+                    double best = Double.MAX_VALUE;
+                    for (int i = 0; i < iterations; i++) {
+                        System.gc();
+                        last = ParallelCsvLoader.load(file, workers * 4, pool);
+                        best = Math.min(best, last.totalNanos / 1e6);
+                    }
+                    verifyOrder(expected, last.entries);
+                    if (workers == 1) {
+                        baseline = best;
+                    }
+                    System.out.printf("parallel x%-3d             %8.1f ms  (%7.1f MB/s)  speedup %.2fx%n",
+                        workers, best, mb / (best / 1000), baseline / best);
+                } finally {
+                    pool.shutdown();
+                }
+                if (workers < cores && workers * 2 > cores) {
+                    workers = cores / 2; // make sure the last round uses every core
+                }
+            }
+            if (last != null) {
+                System.out.print(last.report());
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static void verifyOrder(List<RosterEntry> expected, List<RosterEntry> actual) {
+        if (expected.size() != actual.size()) {
+            throw new IllegalStateException("Expected " + expected.size() + " entries, got " + actual.size());
+        }
+        for (int i = 0; i < expected.size(); i++) {
+            if (!expected.get(i).name.equals(actual.get(i).name)) {
+                throw new IllegalStateException("Order differs at entry " + i);
+            }
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package bench;
+
+import classes.Position;
+import classes.RosterEntry;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import misc.BooleanQuery;
+import misc.CsvParser;
+import misc.FieldIndex;
+import misc.FuzzyIndex;
+import misc.MappedCsvReader;
+import misc.ParallelCsvLoader;
+import misc.PositionIndex;
+import misc.RosterQuery;
+import misc.RosterStats;
+import misc.SearchIndex;
+
+public class RosterBenchmarks {
+    // Headless benchmark suite for the parsing, search and filtering hot paths.
+    //
+    //   java -Xmx6g -cp out bench.RosterBenchmarks [group...] [-rows 1000,100000,1000000]
+    //
+    // Allocation figures come from the benchmark thread only (see Harness), so
+    // the parallel loader, whose work runs on ForkJoin workers, has none; the
+    // JMH module under jmh/ measures every thread with -prof gc.
+    //
+    // Groups: parse, load, search, filter, ranked, stats, query (default: all). Rosters are generated
+    // per size with RosterGenerator. The "legacy" rows reproduce what
+    // App.filterContent / App.filterByCategory did before the search index, so
+    // regressions show up against a fixed baseline.
+
+    private static final String[] QUERIES = {"lamar", "qb", "career rushing", "zzz"};
+    private static final String[] RANKED_QUERIES = {"lamr", "henery", "lam", "jakson", "career rushing", "kyle hamiltn"};
+    private static final int[] TOP_K = {10, 50};
+    private static final String[] BOOLEAN_QUERIES = {
+        "position:QB AND \"MVP\" NOT category:coach",
+        "(position:ol OR position:dl) AND (\"pro\" OR \"starts\")",
+        "category:roster NOT (position:qb OR position:rb)",
+        "(name:lam OR name:henry) role:rb",
+        "stat:\"rushing yards > 5000\" OR \"pro bowl\"",
+        "NOT category:\"front office\" NOT \"career\""};
+    private static final String[] STAT_EXPRESSIONS = {
+        "rushing yards > 5000", "career sacks >= 19000", "pro bowls < 100", "nfl starts = 7000"};
+    private static final Position[] POSITIONS = {Position.QB, Position.OL, Position.ST, Position.COACH};
+
+    public static void main(String[] args) throws Exception {
+        List<String> groups = new ArrayList<>();
+        int[] sizes = {1_000, 100_000, 1_000_000};
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-rows")) {
+                sizes = Arrays.stream(args[++i].split(",")).mapToInt(Integer::parseInt).toArray();
+            } else {
+                groups.add(args[i]);
+            }
+        }
+        if (groups.isEmpty()) {
+            groups.addAll(List.of("parse", "load", "search", "filter", "ranked", "stats", "query"));
+        }
+
+        Harness harness = Harness.fromSystemProperties();
+        Path dir = Files.createTempDirectory("roster-bench");
+        try {
+            for (int rows : sizes) {
+                harness.out().printf("%n== %,d rows ==%n", rows);
+                Path csv = dir.resolve("roster-" + rows + ".csv");
+                RosterGenerator.writeCsv(csv, rows, 42);
+
+                if (groups.contains("parse")) parse(harness, csv);
+                if (groups.contains("load")) load(harness, csv);
+                if (groups.contains("search") || groups.contains("filter") || groups.contains("ranked")
+                        || groups.contains("stats") || groups.contains("query")) {
+                    List<RosterEntry> roster = new ArrayList<>();
+                    MappedCsvReader.stream(csv, roster::add);
+                    List<String> texts = new ArrayList<>(roster.size());
+                    for (RosterEntry entry : roster) {
+                        texts.add(entry.displayName + " " + entry.subtitle + " " + entry.details);
+                    }
+                    SearchIndex index = new SearchIndex(texts);
+
+                    if (groups.contains("search")) search(harness, texts, index);
+                    if (groups.contains("filter")) filter(harness, texts, index, new PositionIndex(roster));
+                    if (groups.contains("ranked")) ranked(harness, roster);
+                    if (groups.contains("stats")) stats(harness, roster);
+                    if (groups.contains("query")) query(harness, roster);
+                }
+                Files.deleteIfExists(csv);
+            }
+        } finally {
+            Files.deleteIfExists(dir);
+        }
+        harness.out().println("(sink " + harness.sink() + ")");
+    }
+
+    // CsvParser.parseCSVLine over every data line of the file
+    private static void parse(Harness harness, Path csv) throws IOException {
+        List<String> lines = Files.readAllLines(csv, StandardCharsets.UTF_8);
+        lines.remove(0);
+        long bytes = Files.size(csv);
+        harness.run("parse  CsvParser.parseCSVLine (all lines)", bytes, () -> {
+            long fields = 0;
+            for (String line : lines) {
+                fields += CsvParser.parseCSVLine(line).length;
+            }
+            return fields;
+        });
+    }
+
+    private static void load(Harness harness, Path csv) throws IOException {
+        long bytes = Files.size(csv);
+        String path = csv.toString();
+        harness.run("load   CsvParser.loadRosterFromCSV", bytes,
+            () -> CsvParser.loadRosterFromCSV(path).size());
+        harness.run("load   MappedCsvReader.stream", bytes,
+            () -> MappedCsvReader.stream(csv, e -> { }));
+        harness.runMultiThreaded("load   ParallelCsvLoader.load", bytes,
+            () -> ParallelCsvLoader.load(csv).entries.size());
+    }
+
+    private static void search(Harness harness, List<String> texts, SearchIndex index) {
+        for (String query : QUERIES) {
+            harness.run("search legacy contains \"" + query + "\"", 0, () -> legacyMatches(texts, query));
+            harness.run("search SearchIndex \"" + query + "\"", 0, () -> index.search(query).length);
+        }
+    }
+
+    // Position filtering splits every card into matching / non-matching lists.
+    // The substring rows are the old dropdown behaviour, false positives included.
+    private static void filter(Harness harness, List<String> texts, SearchIndex index, PositionIndex positions) {
+        for (Position p : POSITIONS) {
+            String position = p == Position.COACH ? "coach" : p.name().toLowerCase();
+            harness.run("filter legacy partition \"" + position + "\"", 0, () -> {
+                List<Integer> matching = new ArrayList<>();
+                List<Integer> other = new ArrayList<>();
+                for (int i = 0; i < texts.size(); i++) {
+                    (texts.get(i).toLowerCase().contains(position) ? matching : other).add(i);
+                }
+                return matching.size() - other.size();
+            });
+            harness.run("filter SearchIndex partition \"" + position + "\"", 0, () -> {
+                int[] matching = index.search(position);
+                int[] other = new int[index.size() - matching.length];
+                for (int id = 0, j = 0, n = 0; id < index.size(); id++) {
+                    if (j < matching.length && matching[j] == id) j++;
+                    else other[n++] = id;
+                }
+                return matching.length - other.length;
+            });
+            harness.run("filter PositionIndex " + p, 0,
+                () -> positions.ids(p).length - positions.others(p).length);
+        }
+    }
+
+    // Typo-tolerant top-k search, including the one-off cost of building the word index
+    private static void ranked(Harness harness, List<RosterEntry> roster) {
+        List<String> names = new ArrayList<>(roster.size());
+        List<String> subtitles = new ArrayList<>(roster.size());
+        List<String> details = new ArrayList<>(roster.size());
+        for (RosterEntry entry : roster) {
+            names.add(entry.displayName);
+            subtitles.add(entry.subtitle);
+            details.add(entry.details);
+        }
+        harness.run("ranked build FuzzyIndex", 0, () -> new FuzzyIndex(names, subtitles, details).dictionarySize());
+
+        FuzzyIndex index = new FuzzyIndex(names, subtitles, details);
+        for (int k : TOP_K) {
+            for (String query : RANKED_QUERIES) {
+                harness.run("ranked top " + k + " \"" + query + "\"", 0, () -> index.top(query, k).length);
+            }
+        }
+    }
+
+    // Stat columns: building them, range filters and sorts, against reading
+    // the number back out of every entry's details on each query
+    private static void stats(Harness harness, List<RosterEntry> roster) {
+        harness.run("stats  build RosterStats", 0, () -> RosterStats.of(roster).all().size());
+
+        RosterStats stats = RosterStats.of(roster);
+        RosterStats.Stat rushing = stats.find("career rushing yards");
+        int[] all = new int[roster.size()];
+        for (int id = 0; id < all.length; id++) {
+            all[id] = id;
+        }
+        int[] half = new int[all.length / 2];
+        for (int i = 0; i < half.length; i++) {
+            half[i] = i * 2;
+        }
+
+        harness.run("stats  legacy scan \"rushing yards > 5000\"", 0, () -> {
+            long matches = 0;
+            for (RosterEntry entry : roster) {
+                int at = entry.details.indexOf("Career Rushing Yards: ");
+                if (at >= 0) {
+                    int from = at + "Career Rushing Yards: ".length();
+                    int to = from;
+                    while (to < entry.details.length()
+                            && (Character.isDigit(entry.details.charAt(to)) || entry.details.charAt(to) == ',')) {
+                        to++;
+                    }
+                    if (Integer.parseInt(entry.details.substring(from, to).replace(",", "")) > 5000) matches++;
+                }
+            }
+            return matches;
+        });
+        for (String expression : STAT_EXPRESSIONS) {
+            harness.run("stats  match \"" + expression + "\"", 0, () -> stats.match(expression).length);
+        }
+        harness.run("stats  sorted all by rushing yards", 0, () -> stats.sorted(rushing, true).length);
+        harness.run("stats  sort half the ids by rushing yards", 0, () -> stats.sort(half, rushing, true).length);
+        harness.run("stats  without rushing yards (all ids)", 0, () -> stats.without(all, rushing).length);
+    }
+
+    // Boolean queries as IdBitmap set operations, against evaluating the same
+    // tree card by card with string matching
+    private static void query(Harness harness, List<RosterEntry> roster) {
+        harness.run("query  build FieldIndex", 0, () -> new FieldIndex(roster).size());
+
+        RosterQuery rosterQuery = new RosterQuery(roster);
+        for (String text : BOOLEAN_QUERIES) {
+            BooleanQuery query = BooleanQuery.parse(text);
+            rosterQuery.matching(query); // field postings are built on first use
+            harness.run("query  legacy per-card " + text, 0, () -> {
+                long matches = 0;
+                for (RosterEntry entry : rosterQuery.entries()) {
+                    if (query.matches(entry)) matches++;
+                }
+                return matches;
+            });
+            harness.run("query  bitmaps " + text, 0, () -> rosterQuery.matching(query).toArray().length);
+        }
+    }
+
+    // What App.filterContent did per keystroke before the index
+    private static long legacyMatches(List<String> texts, String query) {
+        String lowerQuery = query.toLowerCase().trim();
+        long matches = 0;
+        for (String text : texts) {
+            if (text.toLowerCase().contains(lowerQuery)) matches++;
+        }
+        return matches;
+    }
+}
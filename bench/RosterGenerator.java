@@ -0,0 +1,105 @@
+package bench;
+
+import classes.RosterEntry;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class RosterGenerator {
+    // Synthetic league-wide rosters in the same shape as ravens_roster.csv.
+    // Output is deterministic for a given seed so benchmark runs are comparable.
+
+    private static final String[][] CATEGORIES = {
+        {"Player Roster - Quarterbacks", "QB"},
+        {"Player Roster - Running Backs", "RB"},
+        {"Player Roster - Wide Receivers", "WR"},
+        {"Player Roster - Tight Ends", "TE"},
+        {"Player Roster - Offensive Line", "OL"},
+        {"Player Roster - Defensive Line", "DL"},
+        {"Player Roster - Linebackers", "LB"},
+        {"Player Roster - Defensive Backs", "DB"},
+        {"Player Roster - Special Teams", "K"},
+        {"Coaching Staff - Head Coach", "Head Coach"},
+        {"Coaching Staff - Coordinators", "Offensive Coordinator"},
+        {"Front Office", "General Manager"},
+        {"Medical & Performance Staff", "Head Athletic Trainer"}
+    };
+
+    private static final String[] FIRST = {
+        "Lamar", "Derrick", "Justice", "Mark", "Zay", "Isaiah", "Roquan", "Kyle",
+        "Marlon", "Justin", "Nnamdi", "Tyler", "Patrick", "Odafe", "Ronnie", "Keaton"
+    };
+
+    private static final String[] LAST = {
+        "Jackson", "Henry", "Hill", "Andrews", "Flowers", "Likely", "Smith", "Hamilton",
+        "Humphrey", "Tucker", "Madubuike", "Linderbaum", "Queen", "Oweh", "Stanley", "Mitchell"
+    };
+
+    private static final String[] STATS = {
+        "Career Rushing Yards", "Career Passing Yards", "Career Receiving Yards",
+        "Career Tackles", "Career Sacks", "Career Interceptions", "Pro Bowls", "NFL Starts"
+    };
+
+    public static List<RosterEntry> generate(int rows, long seed) {
+        Random random = new Random(seed);
+        List<RosterEntry> roster = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            String[] category = CATEGORIES[Math.floorMod(i / 64, CATEGORIES.length)];
+            String name = FIRST[random.nextInt(FIRST.length)] + " " + LAST[random.nextInt(LAST.length)]
+                + " " + i + " – " + category[1];
+            roster.add(new RosterEntry(i, category[0], name, details(random)));
+        }
+        return roster;
+    }
+
+    // Write rows using the repo's CSV conventions: quoted Details with literal \n escapes
+    public static void writeCsv(Path file, int rows, long seed) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("Category,Name,Details\n");
+            for (RosterEntry entry : generate(rows, seed)) {
+                writeRow(out, entry);
+            }
+        }
+    }
+
+    // Keep writing rows until the file reaches roughly the requested size
+    public static long writeCsvOfSize(Path file, long targetBytes, long seed) throws IOException {
+        Random random = new Random(seed);
+        long rows = 0;
+        long written = 0;
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("Category,Name,Details\n");
+            while (written < targetBytes) {
+                String[] category = CATEGORIES[(int) ((rows / 64) % CATEGORIES.length)];
+                String name = FIRST[random.nextInt(FIRST.length)] + " " + LAST[random.nextInt(LAST.length)]
+                    + " " + rows + " – " + category[1];
+                RosterEntry entry = new RosterEntry((int) rows, category[0], name, details(random));
+                written += writeRow(out, entry);
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private static int writeRow(BufferedWriter out, RosterEntry entry) throws IOException {
+        String line = entry.category + "," + entry.name + ",\"" + entry.details.replace("\n", "\\n") + "\"\n";
+        out.write(line);
+        return line.length();
+    }
+
+    private static String details(Random random) {
+        StringBuilder sb = new StringBuilder("Stats:\n");
+        int stats = 1 + random.nextInt(3);
+        for (int s = 0; s < stats; s++) {
+            sb.append("• ").append(STATS[random.nextInt(STATS.length)]).append(": ")
+              .append(String.format("%,d", random.nextInt(20_000))).append("+\n");
+        }
+        sb.append("\nDescription:\nVeteran presence with strong special teams value and a high football IQ.");
+        return sb.toString();
+    }
+}
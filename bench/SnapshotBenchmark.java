@@ -0,0 +1,70 @@
+package bench;
+
+import classes.RosterEntry;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import misc.CsvParser;
+import misc.RosterSnapshot;
+
+public class SnapshotBenchmark {
+    // Startup data load through the CSV path against the binary snapshot.
+    //
+    //   java -cp out bench.SnapshotBenchmark [rows...]
+    //
+    // Both paths end with what App needs before building the UI: entries with
+    // display name, subtitle and lowercase search text available.
+
+    public static void main(String[] args) throws IOException {
+        int[] sizes = args.length > 0
+            ? Arrays.stream(args).mapToInt(Integer::parseInt).toArray()
+            : new int[] {1_000, 100_000, 500_000};
+
+        Path dir = Files.createTempDirectory("roster-snapshot-bench");
+        try {
+            for (int rows : sizes) {
+                Path csv = dir.resolve("roster-" + rows + ".csv");
+                RosterGenerator.writeCsv(csv, rows, 42);
+                RosterSnapshot.loadOrRebuild(csv); // writes the snapshot
+
+                double csvMs = best(5, () -> {
+                    List<RosterEntry> roster = CsvParser.loadRoster(csv.toString());
+                    for (RosterEntry entry : roster) {
+                        entry.getSearchText();
+                    }
+                    return roster.size();
+                });
+                double snapshotMs = best(5, () -> RosterSnapshot.loadOrRebuild(csv).size());
+
+                System.out.printf("%,9d rows  csv %8.1f MB  snapshot %8.1f MB  |  csv %8.1f ms  snapshot %8.1f ms  (%.1fx)%n",
+                    rows, Files.size(csv) / 1048576.0, Files.size(RosterSnapshot.snapshotPath(csv)) / 1048576.0,
+                    csvMs, snapshotMs, csvMs / snapshotMs);
+            }
+        } finally {
+            try (var files = Files.list(dir)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    private static double best(int iterations, Task task) {
+        task.run(); // warmup
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < iterations; i++) {
+            System.gc();
+            long start = System.nanoTime();
+            task.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best / 1e6;
+    }
+
+    interface Task {
+        int run();
+    }
+}
@@ -0,0 +1,52 @@
+package bench;
+
+import classes.RosterEntry;
+import java.util.Arrays;
+import java.util.List;
+import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
+import ui.ExpandableCard;
+import ui.HeaderPanel;
+import ui.RavensButton;
+
+public class UiAllocationBenchmark {
+    // Startup cost of the Swing components App builds: time and bytes
+    // allocated per card, per button and per header, measured on the EDT.
+    //
+    //   java -Djava.awt.headless=true -cp out bench.UiAllocationBenchmark [cards...]
+
+    public static void main(String[] args) throws Exception {
+        int[] sizes = args.length > 0
+            ? Arrays.stream(args).mapToInt(Integer::parseInt).toArray()
+            : new int[] {1_000, 10_000};
+        Harness harness = Harness.fromSystemProperties();
+
+        for (int cards : sizes) {
+            List<RosterEntry> roster = RosterGenerator.generate(cards, 42);
+            harness.out().printf("%n== %,d cards ==%n", cards);
+            SwingUtilities.invokeAndWait(() -> {
+                Harness.Result result = harness.run("build ExpandableCards", 0, () -> {
+                    JPanel panel = new JPanel();
+                    for (RosterEntry entry : roster) {
+                        panel.add(new ExpandableCard(entry.displayName, entry.subtitle, entry.details, true));
+                    }
+                    return panel.getComponentCount();
+                });
+                harness.out().printf("  per card: %.1f us, %,d bytes%n",
+                    result.nanosPerOp() / cards / 1e3, result.allocatedBytes / result.ops / cards);
+            });
+        }
+
+        harness.out().println();
+        SwingUtilities.invokeAndWait(() -> {
+            harness.run("build RavensButton", 0, () -> new RavensButton("Expand All").getText().length());
+            harness.run("build HeaderPanel", 0, () -> new HeaderPanel(null, q -> { }, p -> { },
+                new HeaderPanel.ControlButtonListener() {
+                    public void onExpandAll() { }
+                    public void onCollapseAll() { }
+                }).getComponentCount());
+        });
+        harness.out().println("(sink " + harness.sink() + ")");
+        System.exit(0);
+    }
+}
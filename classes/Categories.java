@@ -0,0 +1,50 @@
+package classes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class Categories {
+    // Process-wide dictionary of category names. A roster repeats a handful
+    // of categories ("Player Roster - Quarterbacks", ...) on every row, so
+    // entries share one String per category and can also refer to it by a
+    // small code. Codes are handed out in order of first appearance and never
+    // change, so they are safe to store in columns and compare across loads.
+
+    private static final ConcurrentHashMap<String, Integer> codes = new ConcurrentHashMap<>();
+    private static final List<String> names = new ArrayList<>(); // guarded by itself
+
+    private Categories() {
+    }
+
+    // Code of the category, adding it on first sight
+    public static int code(String category) {
+        Integer code = codes.get(category);
+        if (code != null) {
+            return code;
+        }
+        synchronized (names) {
+            return codes.computeIfAbsent(category, k -> {
+                names.add(k);
+                return names.size() - 1;
+            });
+        }
+    }
+
+    // Shared instance of a category name
+    public static String intern(String category) {
+        return name(code(category));
+    }
+
+    public static String name(int code) {
+        synchronized (names) {
+            return names.get(code);
+        }
+    }
+
+    public static int size() {
+        synchronized (names) {
+            return names.size();
+        }
+    }
+}
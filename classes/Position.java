@@ -0,0 +1,104 @@
+package classes;
+
+import java.util.Locale;
+
+public enum Position {
+    // Position group of a roster entry, shown as one filter in the header dropdown
+
+    QB("QB - Quarterbacks", "QUARTERBACKS"),
+    RB("RB - Running Backs", "RUNNING BACKS"),
+    WR("WR - Wide Receivers", "WIDE RECEIVERS"),
+    TE("TE - Tight Ends", "TIGHT ENDS"),
+    OL("OL - Offensive Line", "OFFENSIVE LINE"),
+    DL("DL - Defensive Line", "DEFENSIVE LINE"),
+    LB("LB - Linebackers", "LINEBACKERS"),
+    DB("DB - Defensive Backs", "DEFENSIVE BACKS"),
+    ST("ST - Special Teams", "SPECIAL TEAMS"),
+    COACH("Coaches", "COACHING STAFF");
+
+    public final String label; // dropdown text
+    public final String title; // section header above the matching cards
+
+    Position(String label, String title) {
+        this.label = label;
+        this.title = title;
+    }
+
+    // Position from user input: "QB", "qb", "coach", "Coaches" or a full label; null if unknown
+    public static Position parse(String text) {
+        String t = text.trim();
+        for (Position position : values()) {
+            if (position.name().equalsIgnoreCase(t) || position.label.equalsIgnoreCase(t)) {
+                return position;
+            }
+        }
+        return null;
+    }
+
+    // Works out the position from an entry's category and the subtitle split off
+    // its name, e.g. "Player Roster - Offensive Line" / "OT". Returns null for
+    // entries that aren't in any group (front office, medical staff, ...).
+    public static Position classify(String category, String subtitle) {
+        String cat = category == null ? "" : category.toLowerCase(Locale.ROOT);
+        String sub = subtitle == null ? "" : subtitle.toUpperCase(Locale.ROOT);
+
+        // Coaches first, so "Special Teams Coordinator" or "RB Coach" stay coaches
+        if (cat.contains("coach") || isCoachTitle(sub)) {
+            return COACH;
+        }
+        if (!cat.startsWith("player")) {
+            return null;
+        }
+
+        Position byAbbreviation = fromAbbreviation(sub);
+        return byAbbreviation != null ? byAbbreviation : fromCategory(cat);
+    }
+
+    private static boolean isCoachTitle(String sub) {
+        for (String word : sub.split("[^A-Z&]+")) {
+            if (word.equals("COACH")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Position fromAbbreviation(String sub) {
+        switch (sub) {
+            case "QB":
+                return QB;
+            case "RB": case "HB": case "FB":
+                return RB;
+            case "WR":
+                return WR;
+            case "TE":
+                return TE;
+            case "OL": case "OT": case "T": case "OG": case "G": case "C":
+                return OL;
+            case "DL": case "DT": case "DE": case "NT":
+                return DL;
+            case "LB": case "OLB": case "ILB": case "MLB": case "EDGE":
+                return LB;
+            case "DB": case "CB": case "S": case "SAF": case "FS": case "SS":
+                return DB;
+            case "K": case "P": case "LS": case "KR": case "PR":
+                return ST;
+            default:
+                return null;
+        }
+    }
+
+    // Unknown abbreviation, go by the roster section instead
+    private static Position fromCategory(String cat) {
+        if (cat.contains("quarterback")) return QB;
+        if (cat.contains("running back")) return RB;
+        if (cat.contains("wide receiver")) return WR;
+        if (cat.contains("tight end")) return TE;
+        if (cat.contains("offensive line")) return OL;
+        if (cat.contains("defensive front") || cat.contains("defensive line")) return DL;
+        if (cat.contains("linebacker")) return LB;
+        if (cat.contains("secondary") || cat.contains("defensive back")) return DB;
+        if (cat.contains("specialist") || cat.contains("special teams")) return ST;
+        return null;
+    }
+}
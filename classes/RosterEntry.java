@@ -1,13 +1,81 @@
 package classes;
 
-public class RosterEntry {
-    public String category;
-    public String name;
-    public String details;
-    
-    public RosterEntry(String category, String name, String details) {
-        this.category = category;
+import java.util.Locale;
+
+public final class RosterEntry {
+    // One roster row. Immutable, so entries can be shared between the loader,
+    // the search workers, the HTTP server and the EDT without copying.
+
+    // Row number in the roster it was loaded from: 0 for the first data row of
+    // the CSV, and the same for a given file however it was parsed
+    public final int id;
+
+    // Shared instance from Categories, see categoryCode
+    public final String category;
+    public final int categoryCode;
+    public final String name;
+    public final String details;
+
+    // Name split on the first "–" or "-", e.g. "Lamar Jackson" / "QB"
+    public final String displayName;
+    public final String subtitle;
+
+    // Position group parsed from category and subtitle, null if the entry has none
+    public final Position position;
+
+    // Lowercase display name, subtitle and details, built on first use. Racing
+    // threads at worst build equal strings, as with String.hashCode.
+    private String searchText;
+
+    public RosterEntry(int id, String category, String name, String details) {
+        this.id = id;
+        this.categoryCode = Categories.code(category);
+        this.category = Categories.name(categoryCode);
+        this.name = name;
+        this.details = details;
+
+        // Extract position/role from name if it exists
+        int dash = name.indexOf('–');
+        if (dash < 0) {
+            dash = name.indexOf('-');
+        }
+        if (dash >= 0) {
+            this.displayName = name.substring(0, dash).trim();
+            this.subtitle = name.substring(dash + 1).trim();
+        } else {
+            this.displayName = name;
+            this.subtitle = "";
+        }
+        this.position = Position.classify(category, subtitle);
+    }
+
+    // For loaders that already have the derived fields, e.g. a roster snapshot
+    public RosterEntry(int id, String category, String name, String details,
+                       String displayName, String subtitle, String searchText) {
+        this.id = id;
+        this.categoryCode = Categories.code(category);
+        this.category = Categories.name(categoryCode);
         this.name = name;
         this.details = details;
+        this.displayName = displayName;
+        this.subtitle = subtitle;
+        this.searchText = searchText;
+        this.position = Position.classify(category, subtitle);
+    }
+
+    // Same entry under another row number, sharing every string
+    public RosterEntry withId(int id) {
+        return id == this.id ? this
+            : new RosterEntry(id, category, name, details, displayName, subtitle, searchText);
+    }
+
+    // Same text an ExpandableCard searches, already lowercased
+    public String getSearchText() {
+        String text = searchText;
+        if (text == null) {
+            text = (displayName + " " + subtitle + " " + details).toLowerCase(Locale.ROOT);
+            searchText = text;
+        }
+        return text;
     }
 }
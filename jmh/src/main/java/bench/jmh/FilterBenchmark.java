@@ -0,0 +1,75 @@
+package bench.jmh;
+
+import bench.RosterGenerator;
+import classes.Position;
+import classes.RosterEntry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import misc.PositionIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class FilterBenchmark {
+    // Position filtering: the PositionIndex lists for the selected position
+    // and for every other card, against the old dropdown's substring
+    // partition over each card's text, false positives included.
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    @Param({"QB", "OL", "ST", "COACH"})
+    public Position position;
+
+    private List<String> texts;
+    private PositionIndex index;
+    private String legacyText;
+
+    @Setup(Level.Trial)
+    public void buildIndex() {
+        List<RosterEntry> roster = RosterGenerator.generate(rows, 42);
+        texts = new ArrayList<>(roster.size());
+        for (RosterEntry entry : roster) {
+            texts.add(entry.displayName + " " + entry.subtitle + " " + entry.details);
+        }
+        index = new PositionIndex(roster);
+        legacyText = position == Position.COACH ? "coach" : position.name().toLowerCase(Locale.ROOT);
+    }
+
+    @Benchmark
+    public int[] ids() {
+        return index.ids(position);
+    }
+
+    @Benchmark
+    public int[] others() {
+        return index.others(position);
+    }
+
+    @Benchmark
+    public int legacyPartition() {
+        List<Integer> matching = new ArrayList<>();
+        List<Integer> other = new ArrayList<>();
+        for (int i = 0; i < texts.size(); i++) {
+            (texts.get(i).toLowerCase(Locale.ROOT).contains(legacyText) ? matching : other).add(i);
+        }
+        return matching.size() - other.size();
+    }
+}
@@ -0,0 +1,92 @@
+package bench.jmh;
+
+import bench.RosterGenerator;
+import classes.RosterEntry;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import misc.CsvParser;
+import misc.MappedCsvReader;
+import misc.ParallelCsvLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class LoadBenchmark {
+    // Reading a generated roster CSV: the line parser on its own, the
+    // original BufferedReader loader, the memory-mapped streaming reader, and
+    // the parallel chunked loader. With -prof gc the parallel loader's
+    // allocation includes its ForkJoin workers.
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    private Path dir;
+    private Path csv;
+    private List<String> lines;
+    private PrintStream out;
+
+    @Setup(Level.Trial)
+    public void writeCsv() throws IOException {
+        dir = Files.createTempDirectory("roster-jmh");
+        csv = dir.resolve("roster-" + rows + ".csv");
+        RosterGenerator.writeCsv(csv, rows, 42);
+        lines = Files.readAllLines(csv, StandardCharsets.UTF_8);
+        lines.remove(0);
+        // loadRosterFromCSV reports every load on stdout, as bench.Harness
+        // also hides
+        out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteCsv() throws IOException {
+        System.setOut(out);
+        Files.deleteIfExists(csv);
+        Files.deleteIfExists(dir);
+    }
+
+    @Benchmark
+    public void parseLines(Blackhole bh) {
+        for (String line : lines) {
+            bh.consume(CsvParser.parseCSVLine(line));
+        }
+    }
+
+    @Benchmark
+    public List<RosterEntry> loadRosterFromCSV() {
+        return CsvParser.loadRosterFromCSV(csv.toString());
+    }
+
+    @Benchmark
+    public long mappedStream(Blackhole bh) throws IOException {
+        return MappedCsvReader.stream(csv, bh::consume);
+    }
+
+    @Benchmark
+    public List<RosterEntry> parallelLoad() throws IOException {
+        return ParallelCsvLoader.load(csv).entries;
+    }
+}
@@ -0,0 +1,66 @@
+package bench.jmh;
+
+import bench.RosterGenerator;
+import classes.RosterEntry;
+import java.util.concurrent.TimeUnit;
+import misc.BooleanQuery;
+import misc.RosterQuery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class QueryBenchmark {
+    // Boolean queries evaluated as IdBitmap set operations, against the same
+    // tree matched entry by entry, as catalog search does for compact shards.
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    @Param({
+        "position:QB AND \"MVP\" NOT category:coach",
+        "(name:lam OR name:henry) role:rb",
+        "stat:\"rushing yards > 5000\" OR \"pro bowl\"",
+        "NOT category:\"front office\" NOT \"career\""})
+    public String query;
+
+    private RosterQuery rosterQuery;
+    private BooleanQuery parsed;
+
+    @Setup(Level.Trial)
+    public void buildIndex() {
+        rosterQuery = new RosterQuery(RosterGenerator.generate(rows, 42));
+        parsed = BooleanQuery.parse(query);
+        rosterQuery.matching(parsed); // field postings are built on first use
+    }
+
+    @Benchmark
+    public int[] bitmaps() {
+        return rosterQuery.matching(parsed).toArray();
+    }
+
+    @Benchmark
+    public int perEntry() {
+        int matches = 0;
+        for (RosterEntry entry : rosterQuery.entries()) {
+            if (parsed.matches(entry)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+}
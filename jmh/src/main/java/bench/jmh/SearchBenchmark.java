@@ -0,0 +1,68 @@
+package bench.jmh;
+
+import bench.RosterGenerator;
+import classes.RosterEntry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import misc.SearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SearchBenchmark {
+    // Plain search box text: the trigram SearchIndex against lowercasing and
+    // scanning every card's text, which is what each keystroke used to cost.
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    @Param({"lamar", "qb", "career rushing", "zzz"})
+    public String query;
+
+    private List<String> texts;
+    private SearchIndex index;
+
+    @Setup(Level.Trial)
+    public void buildIndex() {
+        List<RosterEntry> roster = RosterGenerator.generate(rows, 42);
+        texts = new ArrayList<>(roster.size());
+        for (RosterEntry entry : roster) {
+            texts.add(entry.displayName + " " + entry.subtitle + " " + entry.details);
+        }
+        index = new SearchIndex(texts);
+    }
+
+    @Benchmark
+    public int[] searchIndex() {
+        return index.search(query);
+    }
+
+    @Benchmark
+    public int legacyContains() {
+        String lowerQuery = query.toLowerCase(Locale.ROOT).trim();
+        int matches = 0;
+        for (String text : texts) {
+            if (text.toLowerCase(Locale.ROOT).contains(lowerQuery)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+}
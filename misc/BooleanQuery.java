@@ -0,0 +1,397 @@
+package misc;
+
+import classes.Position;
+import classes.RosterEntry;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+public final class BooleanQuery {
+    // Search box query language, parsed into a small tree that RosterQuery
+    // evaluates as set operations over IdBitmaps:
+    //
+    //   position:QB AND "MVP" NOT category:coach
+    //   (name:lamar OR name:henry) role:rb
+    //   NOT category:"front office"
+    //   stat:"rushing yards > 5000" OR "pro bowl"
+    //
+    // Operators are AND, OR and NOT in capitals; terms next to each other are
+    // ANDed, "a NOT b" means a AND NOT b, and AND binds tighter than OR.
+    // A term is a word or a quoted phrase, matched as a substring of the
+    // whole card text like the plain search, or field:value for one field
+    // (see FIELDS). Anything without operators, quotes, parentheses or a
+    // field prefix is not a query at all and keeps the plain substring search,
+    // so "lamar jackson" still means exactly that text.
+
+    // field name as typed -> the field it searches
+    private static final String[][] FIELDS = {
+        {"position", "position"}, {"pos", "position"},
+        {"category", "category"}, {"cat", "category"},
+        {"name", "name"},
+        {"role", "role"}, {"subtitle", "role"},
+        {"stat", "stat"},
+    };
+
+    private final Node root;
+
+    private BooleanQuery(Node root) {
+        this.root = root;
+    }
+
+    // The parsed query, or null for plain text (including text that starts to
+    // look like a query but doesn't parse, such as an unclosed quote)
+    public static BooleanQuery parse(String text) {
+        List<String> tokens = tokenize(text);
+        if (tokens == null || !isQuery(tokens)) {
+            return null;
+        }
+        Parser parser = new Parser(tokens);
+        Node root = parser.or();
+        return root != null && parser.done() ? new BooleanQuery(root) : null;
+    }
+
+    public Node root() {
+        return root;
+    }
+
+    // Text the query looks for on the cards it matches, for highlighting:
+    // every text, name and role term that isn't under a NOT
+    public List<String> highlightTerms() {
+        List<String> terms = new ArrayList<>();
+        collect(root, false, terms);
+        return terms;
+    }
+
+    // The query against one entry by plain string matching, for rosters
+    // without a FieldIndex such as compact catalog shards. Same answers as
+    // RosterQuery gives, one entry at a time.
+    public boolean matches(RosterEntry entry) {
+        return matches(root, entry);
+    }
+
+    // Canonical form, the same for queries that differ only in spacing or case
+    // of field names, e.g. (position:qb AND "mvp")
+    @Override
+    public String toString() {
+        return root.toString();
+    }
+
+    private static void collect(Node node, boolean negated, List<String> terms) {
+        if (node instanceof Term) {
+            Term t = (Term) node;
+            if (!negated && (t.field == null || t.field.equals("name") || t.field.equals("role"))) {
+                terms.add(t.value);
+            }
+        } else if (node instanceof Not) {
+            collect(((Not) node).child, !negated, terms);
+        } else {
+            for (Node child : ((Group) node).children) {
+                collect(child, negated, terms);
+            }
+        }
+    }
+
+    private static boolean matches(Node node, RosterEntry entry) {
+        if (node instanceof Not) {
+            return !matches(((Not) node).child, entry);
+        }
+        if (node instanceof And) {
+            for (Node child : ((And) node).children) {
+                if (!matches(child, entry)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (node instanceof Or) {
+            for (Node child : ((Or) node).children) {
+                if (matches(child, entry)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        Term t = (Term) node;
+        if (t.field == null) {
+            return entry.getSearchText().contains(t.value);
+        }
+        switch (t.field) {
+            case "position":
+                Position position = Position.parse(t.value);
+                return position != null && entry.position == position;
+            case "category":
+                return SearchIndex.normalize(entry.category).contains(t.value);
+            case "name":
+                return prefixesMatch(FieldIndex.words(entry.displayName), t.value);
+            case "role":
+                return prefixesMatch(FieldIndex.words(entry.subtitle), t.value);
+            default:
+                return t.condition.test(entry.details);
+        }
+    }
+
+    // Every word of the value starts some word of the field
+    private static boolean prefixesMatch(List<String> fieldWords, String value) {
+        List<String> words = FieldIndex.words(value);
+        if (words.isEmpty()) {
+            return false;
+        }
+        for (String word : words) {
+            boolean found = false;
+            for (String fieldWord : fieldWords) {
+                if (fieldWord.startsWith(word)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isQuery(List<String> tokens) {
+        for (String token : tokens) {
+            if (isOperator(token) || token.equals("(") || token.equals(")") || token.startsWith("\"")
+                    || field(token) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isOperator(String token) {
+        return token.equals("AND") || token.equals("OR") || token.equals("NOT");
+    }
+
+    // Known field of a "field:value" token, else null
+    private static String field(String token) {
+        int colon = token.indexOf(':');
+        if (colon <= 0 || colon == token.length() - 1) {
+            return null;
+        }
+        String name = token.substring(0, colon).toLowerCase(Locale.ROOT);
+        for (String[] field : FIELDS) {
+            if (field[0].equals(name)) {
+                return field[1];
+            }
+        }
+        return null;
+    }
+
+    // Words, "quoted phrases" (kept with their opening quote), field:value and
+    // field:"quoted value", and parentheses; null on an unclosed quote
+    private static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        int i = 0;
+        int length = text.length();
+        while (i < length) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '(' || c == ')') {
+                tokens.add(String.valueOf(c));
+                i++;
+            } else if (c == '"') {
+                int close = text.indexOf('"', i + 1);
+                if (close < 0) {
+                    return null;
+                }
+                tokens.add(text.substring(i, close));
+                i = close + 1;
+            } else {
+                int start = i;
+                while (i < length && !Character.isWhitespace(text.charAt(i))
+                        && text.charAt(i) != '(' && text.charAt(i) != ')' && text.charAt(i) != '"') {
+                    i++;
+                }
+                String word = text.substring(start, i);
+                if (word.endsWith(":") && i < length && text.charAt(i) == '"') {
+                    int close = text.indexOf('"', i + 1);
+                    if (close < 0) {
+                        return null;
+                    }
+                    word += text.substring(i + 1, close);
+                    i = close + 1;
+                }
+                tokens.add(word);
+            }
+        }
+        return tokens;
+    }
+
+    // Recursive descent over the tokens:
+    //
+    //   or    := and ("OR" and)*
+    //   and   := unary (["AND"] unary | "NOT" unary)*
+    //   unary := "NOT" unary | "(" or ")" | term
+    private static final class Parser {
+        private final List<String> tokens;
+        private int pos;
+
+        Parser(List<String> tokens) {
+            this.tokens = tokens;
+        }
+
+        boolean done() {
+            return pos == tokens.size();
+        }
+
+        Node or() {
+            List<Node> children = new ArrayList<>();
+            Node first = and();
+            if (first == null) {
+                return null;
+            }
+            children.add(first);
+            while (accept("OR")) {
+                Node next = and();
+                if (next == null) {
+                    return null;
+                }
+                children.add(next);
+            }
+            return children.size() == 1 ? first : new Or(children);
+        }
+
+        Node and() {
+            List<Node> children = new ArrayList<>();
+            Node first = unary();
+            if (first == null) {
+                return null;
+            }
+            children.add(first);
+            while (pos < tokens.size() && !peek("OR") && !peek(")")) {
+                accept("AND"); // "a NOT b" is a AND (NOT b), which unary reads
+                Node next = unary();
+                if (next == null) {
+                    return null;
+                }
+                children.add(next);
+            }
+            return children.size() == 1 ? first : new And(children);
+        }
+
+        Node unary() {
+            if (pos == tokens.size()) {
+                return null;
+            }
+            if (accept("NOT")) {
+                Node negated = unary();
+                return negated == null ? null : new Not(negated);
+            }
+            if (accept("(")) {
+                Node inner = or();
+                return inner != null && accept(")") ? inner : null;
+            }
+            String token = tokens.get(pos);
+            if (isOperator(token) || token.equals(")")) {
+                return null;
+            }
+            pos++;
+            if (token.startsWith("\"")) {
+                String phrase = SearchIndex.normalize(token.substring(1)).trim();
+                return phrase.isEmpty() ? null : new Term(null, phrase);
+            }
+            String field = field(token);
+            if (field != null) {
+                String value = SearchIndex.normalize(token.substring(token.indexOf(':') + 1)).trim();
+                return value.isEmpty() ? null : new Term(field, value);
+            }
+            return new Term(null, SearchIndex.normalize(token));
+        }
+
+        private boolean peek(String token) {
+            return pos < tokens.size() && tokens.get(pos).equals(token);
+        }
+
+        private boolean accept(String token) {
+            if (peek(token)) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+    }
+
+    // Query tree
+    public abstract static class Node {
+    }
+
+    // Entries matching a value: text anywhere when field is null, else
+    // "position", "category", "name", "role" or "stat". Values are lowercase.
+    public static final class Term extends Node {
+        public final String field;
+        public final String value;
+        final RosterStats.Condition condition; // stat terms only, for matching one entry at a time
+
+        Term(String field, String value) {
+            this.field = field;
+            this.value = value;
+            this.condition = "stat".equals(field) ? RosterStats.condition(value) : null;
+        }
+
+        @Override
+        public String toString() {
+            String quoted = "\"" + value + "\"";
+            return field == null ? quoted : field + ":" + quoted;
+        }
+    }
+
+    public static final class Not extends Node {
+        public final Node child;
+
+        Not(Node child) {
+            this.child = child;
+        }
+
+        @Override
+        public String toString() {
+            return "NOT " + child;
+        }
+    }
+
+    public abstract static class Group extends Node {
+        public final List<Node> children;
+
+        Group(List<Node> children) {
+            this.children = Collections.unmodifiableList(children);
+        }
+
+        String join(String operator) {
+            StringBuilder sb = new StringBuilder("(");
+            for (int i = 0; i < children.size(); i++) {
+                if (i > 0) {
+                    sb.append(' ').append(operator).append(' ');
+                }
+                sb.append(children.get(i));
+            }
+            return sb.append(')').toString();
+        }
+    }
+
+    // Every child; a Not child subtracts
+    public static final class And extends Group {
+        And(List<Node> children) {
+            super(children);
+        }
+
+        @Override
+        public String toString() {
+            return join("AND");
+        }
+    }
+
+    public static final class Or extends Group {
+        Or(List<Node> children) {
+            super(children);
+        }
+
+        @Override
+        public String toString() {
+            return join("OR");
+        }
+    }
+}
@@ -1,16 +1,75 @@
 package misc;
 
 import java.awt.Color;
+import java.awt.Cursor;
+import java.awt.Font;
+import javax.swing.BorderFactory;
+import javax.swing.border.Border;
+import javax.swing.text.DefaultHighlighter;
+import javax.swing.text.Highlighter;
 
 public class ColorScheme {
+    // Shared look of the app. Colors, fonts, cursors and borders are all
+    // immutable, so every component uses these instances instead of
+    // allocating its own copy.
+
     // Team Colors
     public static final Color RAVENS_PURPLE = new Color(36, 23, 115);
     public static final Color RAVENS_GOLD = new Color(158, 124, 12);
+    public static final Color RAVENS_GOLD_HOVER = RAVENS_GOLD.brighter();
     public static final Color RAVENS_BLACK = new Color(0, 0, 0);
-    
+
     // Background Colors
     public static final Color BG_COLOR = new Color(250, 250, 252);
     public static final Color CARD_BG = Color.WHITE;
     public static final Color DETAIL_BG = new Color(248, 248, 250);
     public static final Color HOVER_COLOR = new Color(245, 243, 255);
-}
\ No newline at end of file
+
+    // Text and Line Colors
+    public static final Color HEADER_TEXT = Color.WHITE;
+    public static final Color SUBTITLE_TEXT = new Color(100, 100, 120);
+    public static final Color DETAIL_TEXT = new Color(60, 60, 70);
+    public static final Color SEPARATOR_TEXT = new Color(150, 150, 160);
+    public static final Color CARD_OUTLINE = new Color(230, 230, 235);
+    public static final Color MATCH_HIGHLIGHT = new Color(255, 228, 140);
+    public static final Color SKELETON_BAR = new Color(232, 232, 238);
+    public static final Color PERF_OVERLAY_BG = new Color(0, 0, 0, 170);
+    public static final Color PERF_OVERLAY_TEXT = Color.WHITE;
+
+    // Fonts
+    public static final Font TITLE_FONT = new Font("Arial", Font.BOLD, 32);
+    public static final Font HEADER_SUBTITLE_FONT = new Font("Arial", Font.PLAIN, 16);
+    public static final Font CONTROL_FONT = new Font("Arial", Font.PLAIN, 14);
+    public static final Font BUTTON_FONT = new Font("Arial", Font.PLAIN, 13);
+    public static final Font SECTION_FONT = new Font("Arial", Font.BOLD, 24);
+    public static final Font SUBSECTION_FONT = new Font("Arial", Font.BOLD, 18);
+    public static final Font SEPARATOR_FONT = new Font("Arial", Font.ITALIC, 14);
+    public static final Font CARD_NAME_FONT = new Font("Arial", Font.BOLD, 15);
+    public static final Font CARD_SUBTITLE_FONT = new Font("Arial", Font.PLAIN, 13);
+    public static final Font ARROW_FONT = new Font("Arial", Font.PLAIN, 12);
+    public static final Font DETAIL_FONT = new Font("Arial", Font.PLAIN, 13);
+    public static final Font PERF_OVERLAY_FONT = new Font(Font.MONOSPACED, Font.PLAIN, 12);
+
+    // Search match highlighting in card text
+    public static final Highlighter.HighlightPainter MATCH_PAINTER =
+        new DefaultHighlighter.DefaultHighlightPainter(MATCH_HIGHLIGHT);
+
+    // Cursors
+    public static final Cursor HAND_CURSOR = Cursor.getPredefinedCursor(Cursor.HAND_CURSOR);
+
+    // Borders
+    public static final Border CONTENT_PADDING = BorderFactory.createEmptyBorder(20, 30, 20, 30);
+    public static final Border HEADER_PADDING = BorderFactory.createEmptyBorder(25, 30, 25, 30);
+    public static final Border HEADER_SUBTITLE_PADDING = BorderFactory.createEmptyBorder(5, 0, 15, 0);
+    public static final Border SEARCH_FIELD_BORDER = BorderFactory.createCompoundBorder(
+        BorderFactory.createLineBorder(RAVENS_GOLD, 1),
+        BorderFactory.createEmptyBorder(8, 12, 8, 12));
+    public static final Border BUTTON_PADDING = BorderFactory.createEmptyBorder(8, 15, 8, 15);
+    public static final Border SECTION_PADDING = BorderFactory.createEmptyBorder(30, 0, 15, 0);
+    public static final Border SUBSECTION_PADDING = BorderFactory.createEmptyBorder(20, 0, 10, 0);
+    public static final Border SEPARATOR_PADDING = BorderFactory.createEmptyBorder(20, 0, 10, 0);
+    public static final Border CARD_BORDER = BorderFactory.createLineBorder(CARD_OUTLINE, 1);
+    public static final Border CARD_HEADER_PADDING = BorderFactory.createEmptyBorder(18, 18, 18, 18);
+    public static final Border CARD_SUBTITLE_PADDING = BorderFactory.createEmptyBorder(4, 0, 0, 0);
+    public static final Border DETAIL_PADDING = BorderFactory.createEmptyBorder(15, 18, 18, 18);
+}
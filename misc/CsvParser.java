@@ -5,10 +5,17 @@ import java.io.BufferedReader;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 
 public class CsvParser {
+    // Files at least this large are parsed in parallel chunks
+    private static final long PARALLEL_THRESHOLD = Long.getLong("ravens.csv.parallelThreshold", 32L << 20);
+
         // Load roster from CSV file
     public static List<RosterEntry> loadRosterFromCSV(String filename) {
         List<RosterEntry> roster = new ArrayList<>();
@@ -29,6 +36,7 @@ public class CsvParser {
                 String[] parts = parseCSVLine(line);
                 if (parts.length >= 3) {
                     roster.add(new RosterEntry(
+                        roster.size(),
                         parts[0].trim(),
                         parts[1].trim(),
                         parts[2].trim().replace("\\n", "\n")
@@ -58,6 +66,48 @@ public class CsvParser {
         return roster;
     }
     
+    // Load roster through the memory-mapped streaming reader, with the same
+    // fallbacks as loadRosterFromCSV
+    public static List<RosterEntry> loadRoster(String filename) {
+        List<RosterEntry> roster;
+
+        try {
+            roster = readRoster(Paths.get(filename));
+            System.out.println("Successfully loaded " + roster.size() + " entries from " + filename);
+        } catch (NoSuchFileException e) {
+            System.err.println("CSV file not found: " + filename);
+            System.err.println("Using default roster data instead.");
+            System.err.println("Make sure " + filename + " is in the correct directory");
+            return getDefaultRoster();
+        } catch (IOException e) {
+            System.err.println("Error reading CSV: " + e.getMessage());
+            return getDefaultRoster();
+        }
+
+        if (roster.isEmpty()) {
+            System.err.println("Warning: CSV file was empty, using default data");
+            return getDefaultRoster();
+        }
+
+        return roster;
+    }
+    
+    // Just the rows in the file, with no fallback: throws if it can't be read
+    // and returns an empty list if it has no rows. For callers that must not
+    // mistake the default roster for the file's contents.
+    public static List<RosterEntry> readRoster(Path path) throws IOException {
+        if (Files.size(path) >= PARALLEL_THRESHOLD) {
+            ParallelCsvLoader.Result result = ParallelCsvLoader.load(path);
+            if (Boolean.getBoolean("ravens.csv.timings")) {
+                System.out.print(result.report());
+            }
+            return result.entries;
+        }
+        List<RosterEntry> roster = new ArrayList<>();
+        MappedCsvReader.stream(path, roster::add);
+        return roster;
+    }
+
     // Parse a CSV line properly handling quoted fields
     public static String[] parseCSVLine(String line) {
         List<String> result = new ArrayList<>();
@@ -84,13 +134,13 @@ public class CsvParser {
     // Fallback data if CSV not found
     public static List<RosterEntry> getDefaultRoster() {
         List<RosterEntry> roster = new ArrayList<>();
-        roster.add(new RosterEntry("Player Roster - Quarterbacks", 
+        roster.add(new RosterEntry(0, "Player Roster - Quarterbacks", 
             "Lamar Jackson – QB", 
             "Stats:\n• NFL MVP: 2019, 2023\n• Career Passing Yards: 17,000+\n• Career Rushing Yards: 5,000+\n\nDescription:\nElite dual-threat quarterback and centerpiece of the Ravens offense."));
-        roster.add(new RosterEntry("Player Roster - Quarterbacks", 
+        roster.add(new RosterEntry(1, "Player Roster - Quarterbacks", 
             "Cooper Rush – QB", 
             "Stats:\n• NFL Starts: 10+\n\nDescription:\nVeteran backup quarterback providing experience and stability."));
-        roster.add(new RosterEntry("Player Roster - Running Backs", 
+        roster.add(new RosterEntry(2, "Player Roster - Running Backs", 
             "Derrick Henry – RB", 
             "Stats:\n• Career Rushing Yards: 9,000+\n• Career Rushing TDs: 90+\n\nDescription:\nPower back known for size, speed, and late-game dominance."));
         return roster;
@@ -0,0 +1,147 @@
+package misc;
+
+import classes.Position;
+import classes.RosterEntry;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+public class FieldIndex {
+    // IdBitmap postings per field of RosterEntry, for the field:value terms
+    // of a BooleanQuery:
+    //
+    //   position   one set per Position
+    //   category   one set per category ("player roster - quarterbacks");
+    //              a value matches every category containing it
+    //   name       one set per word of the display name
+    //   role       one set per word of the subtitle ("qb", "head coach")
+    //
+    // Name and role words match by prefix, so name:lam finds Lamar. Ids are
+    // positions in the list passed to the constructor, same as SearchIndex.
+
+    private final int size;
+    private final IdBitmap all;
+    private final Map<Position, IdBitmap> positions = new EnumMap<>(Position.class);
+    private final Map<String, IdBitmap> categories = new HashMap<>();
+    private final NavigableMap<String, IdBitmap> nameWords;
+    private final NavigableMap<String, IdBitmap> roleWords;
+
+    public FieldIndex(List<RosterEntry> entries) {
+        size = entries.size();
+        all = IdBitmap.all(size);
+
+        Map<Position, SearchIndex.IntList> byPosition = new EnumMap<>(Position.class);
+        Map<String, SearchIndex.IntList> byCategory = new HashMap<>();
+        Map<String, SearchIndex.IntList> names = new HashMap<>();
+        Map<String, SearchIndex.IntList> roles = new HashMap<>();
+        for (int id = 0; id < size; id++) {
+            RosterEntry entry = entries.get(id);
+            if (entry.position != null) {
+                byPosition.computeIfAbsent(entry.position, k -> new SearchIndex.IntList()).add(id);
+            }
+            byCategory.computeIfAbsent(entry.category, k -> new SearchIndex.IntList()).add(id);
+            for (String word : words(entry.displayName)) {
+                names.computeIfAbsent(word, k -> new SearchIndex.IntList()).addIfNotLast(id);
+            }
+            for (String word : words(entry.subtitle)) {
+                roles.computeIfAbsent(word, k -> new SearchIndex.IntList()).addIfNotLast(id);
+            }
+        }
+
+        // Every list was filled in id order, so each is already sorted
+        for (Map.Entry<Position, SearchIndex.IntList> e : byPosition.entrySet()) {
+            positions.put(e.getKey(), bitmap(e.getValue()));
+        }
+        for (Map.Entry<String, SearchIndex.IntList> e : byCategory.entrySet()) {
+            IdBitmap ids = bitmap(e.getValue());
+            categories.merge(e.getKey().toLowerCase(Locale.ROOT), ids, IdBitmap::or);
+        }
+        nameWords = bitmaps(names);
+        roleWords = bitmaps(roles);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public IdBitmap all() {
+        return all;
+    }
+
+    // "QB", "qb", "coach" or a dropdown label; nothing for an unknown position
+    public IdBitmap position(String value) {
+        Position position = Position.parse(value);
+        IdBitmap ids = position == null ? null : positions.get(position);
+        return ids == null ? IdBitmap.EMPTY : ids;
+    }
+
+    // Every category whose name contains the value, case-insensitively
+    public IdBitmap category(String value) {
+        String v = value.toLowerCase(Locale.ROOT);
+        IdBitmap ids = IdBitmap.EMPTY;
+        for (Map.Entry<String, IdBitmap> e : categories.entrySet()) {
+            if (e.getKey().contains(v)) {
+                ids = ids.or(e.getValue());
+            }
+        }
+        return ids;
+    }
+
+    // Entries with a name word starting with each word of the value
+    public IdBitmap name(String value) {
+        return words(nameWords, value);
+    }
+
+    public IdBitmap role(String value) {
+        return words(roleWords, value);
+    }
+
+    // Lowercase runs of letters and digits
+    static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        String t = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= t.length(); i++) {
+            boolean letter = i < t.length() && Character.isLetterOrDigit(t.charAt(i));
+            if (letter && start < 0) {
+                start = i;
+            } else if (!letter && start >= 0) {
+                words.add(t.substring(start, i));
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    private static IdBitmap words(NavigableMap<String, IdBitmap> index, String value) {
+        IdBitmap ids = null;
+        for (String word : words(value)) {
+            IdBitmap matching = IdBitmap.EMPTY;
+            for (IdBitmap postings : index.subMap(word, true, word + Character.MAX_VALUE, false).values()) {
+                matching = matching.or(postings);
+            }
+            ids = ids == null ? matching : ids.and(matching);
+            if (ids.isEmpty()) {
+                break;
+            }
+        }
+        return ids == null ? IdBitmap.EMPTY : ids;
+    }
+
+    private static NavigableMap<String, IdBitmap> bitmaps(Map<String, SearchIndex.IntList> lists) {
+        NavigableMap<String, IdBitmap> index = new TreeMap<>();
+        for (Map.Entry<String, SearchIndex.IntList> e : lists.entrySet()) {
+            index.put(e.getKey(), bitmap(e.getValue()));
+        }
+        return index;
+    }
+
+    private static IdBitmap bitmap(SearchIndex.IntList ids) {
+        return IdBitmap.of(ids.data, ids.size);
+    }
+}
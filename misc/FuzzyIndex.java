@@ -0,0 +1,438 @@
+package misc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class FuzzyIndex {
+    // Typo-tolerant, ranked word search over roster entries.
+    //
+    // Every entry is split into lowercase words, remembering which field each
+    // word came from. A query word matches a dictionary word exactly, as a
+    // prefix (so results follow the user while typing) or within a small edit
+    // distance, found through a BK-tree over the dictionary. An entry has to
+    // match every query word; its score adds up, per query word, the best
+    // match quality times the weight of the field it was found in, so a hit
+    // in the name outranks the same hit in the details.
+    //
+    // Ids are positions in the lists passed to the constructor. Immutable once
+    // built, so any number of threads can search it.
+
+    private static final int[] EMPTY = new int[0];
+
+    // Field bits stored per posting, and what a hit in each is worth
+    static final byte NAME = 1, SUBTITLE = 2, DETAILS = 4;
+    private static final float NAME_WEIGHT = 3f, SUBTITLE_WEIGHT = 2f, DETAILS_WEIGHT = 1f;
+
+    // Match quality of a dictionary word for a query word
+    private static final float EXACT = 1f, PREFIX = 0.8f, ONE_EDIT = 0.6f, TWO_EDITS = 0.35f;
+
+    // Short query words would prefix-match a large part of the dictionary
+    private static final int MAX_PREFIX_EXPANSIONS = 256;
+
+    private final int size;
+    private final String[] words;      // sorted dictionary
+    private final int[][] postingIds;  // per word, sorted entry ids
+    private final byte[][] postingFields; // per word, field bits of each id
+    private final BkTree tree;
+
+    public FuzzyIndex(List<String> names, List<String> subtitles, List<String> details) {
+        size = names.size();
+        Map<String, Postings> building = new HashMap<>();
+        List<String> tokens = new ArrayList<>();
+        for (int id = 0; id < size; id++) {
+            addField(building, tokens, id, names.get(id), NAME);
+            addField(building, tokens, id, subtitles.get(id), SUBTITLE);
+            addField(building, tokens, id, details.get(id), DETAILS);
+        }
+
+        words = building.keySet().toArray(new String[0]);
+        Arrays.sort(words);
+        postingIds = new int[words.length][];
+        postingFields = new byte[words.length][];
+        tree = new BkTree();
+        for (int w = 0; w < words.length; w++) {
+            Postings postings = building.get(words[w]);
+            postingIds[w] = Arrays.copyOf(postings.ids, postings.size);
+            postingFields[w] = Arrays.copyOf(postings.fields, postings.size);
+            if (isFuzzyCandidate(words[w])) {
+                tree.add(w, words);
+            }
+        }
+    }
+
+    private static void addField(Map<String, Postings> building, List<String> tokens, int id, String text, byte field) {
+        tokens.clear();
+        tokenize(text, tokens);
+        for (String token : tokens) {
+            building.computeIfAbsent(token, k -> new Postings()).add(id, field);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int dictionarySize() {
+        return words.length;
+    }
+
+    // Ids of the k best matches, best first; ties keep roster order.
+    // A query without any words returns the first k entries.
+    public int[] top(String query, int k) {
+        List<String> terms = new ArrayList<>();
+        tokenize(query, terms);
+        if (k <= 0) {
+            return EMPTY;
+        }
+        if (terms.isEmpty()) {
+            int[] first = new int[Math.min(k, size)];
+            for (int i = 0; i < first.length; i++) {
+                first[i] = i;
+            }
+            return first;
+        }
+
+        // Expand every query word first, so the most selective one seeds the candidates
+        List<Expansion> expansions = new ArrayList<>(terms.size());
+        for (String term : terms) {
+            Expansion expansion = expand(term);
+            if (expansion.words.size == 0) {
+                return EMPTY;
+            }
+            expansions.add(expansion);
+        }
+        expansions.sort((a, b) -> Long.compare(a.postings, b.postings));
+
+        float[] best = new float[size];
+        int[] candidates = null;
+        float[] scores = null;
+        int count = 0;
+        for (Expansion expansion : expansions) {
+            // Best score of this query word per entry
+            for (int i = 0; i < expansion.words.size; i++) {
+                int w = expansion.words.data[i];
+                float quality = expansion.quality[i];
+                int[] ids = postingIds[w];
+                byte[] fields = postingFields[w];
+                for (int p = 0; p < ids.length; p++) {
+                    float s = quality * weight(fields[p]);
+                    if (s > best[ids[p]]) {
+                        best[ids[p]] = s;
+                    }
+                }
+            }
+
+            if (candidates == null) {
+                SearchIndex.IntList seeded = new SearchIndex.IntList();
+                for (int id = 0; id < size; id++) {
+                    if (best[id] > 0) {
+                        seeded.add(id);
+                    }
+                }
+                candidates = seeded.toArray();
+                count = candidates.length;
+                scores = new float[count];
+                for (int c = 0; c < count; c++) {
+                    scores[c] = best[candidates[c]];
+                }
+            } else {
+                // Keep candidates this word matched too
+                int n = 0;
+                for (int c = 0; c < count; c++) {
+                    float s = best[candidates[c]];
+                    if (s > 0) {
+                        candidates[n] = candidates[c];
+                        scores[n++] = scores[c] + s;
+                    }
+                }
+                count = n;
+            }
+            if (count == 0) {
+                return EMPTY;
+            }
+            Arrays.fill(best, 0f);
+        }
+        return topK(candidates, scores, count, k);
+    }
+
+    // Dictionary words a query word can stand for, with their match quality
+    private Expansion expand(String term) {
+        Expansion expansion = new Expansion();
+        Map<Integer, Float> quality = new HashMap<>();
+
+        // Exact word and words it is a prefix of
+        int from = Arrays.binarySearch(words, term);
+        if (from < 0) {
+            from = -from - 1;
+        }
+        for (int w = from; w < words.length && words[w].startsWith(term)
+                && w - from < MAX_PREFIX_EXPANSIONS; w++) {
+            quality.put(w, words[w].length() == term.length() ? EXACT : PREFIX);
+        }
+
+        // Words within the edit budget for the query word's length
+        int maxEdits = maxEdits(term);
+        if (maxEdits > 0) {
+            tree.search(term, maxEdits, words, (w, distance) ->
+                quality.merge(w, distance == 0 ? EXACT : distance == 1 ? ONE_EDIT : TWO_EDITS, Math::max));
+        }
+
+        expansion.quality = new float[quality.size()];
+        for (Map.Entry<Integer, Float> e : quality.entrySet()) {
+            expansion.quality[expansion.words.size] = e.getValue();
+            expansion.words.add(e.getKey());
+            expansion.postings += postingIds[e.getKey()].length;
+        }
+        return expansion;
+    }
+
+    // Min-heap of the k best (score, id) pairs, then sorted best first
+    private static int[] topK(int[] ids, float[] scores, int count, int k) {
+        int n = Math.min(k, count);
+        int[] heap = new int[n]; // indexes into ids/scores
+        int heapSize = 0;
+        for (int c = 0; c < count; c++) {
+            if (heapSize < n) {
+                heap[heapSize] = c;
+                siftUp(heap, heapSize++, scores, ids);
+            } else if (better(c, heap[0], scores, ids)) {
+                heap[0] = c;
+                siftDown(heap, heapSize, scores, ids);
+            }
+        }
+
+        int[] result = new int[heapSize];
+        for (int i = heapSize - 1; i >= 0; i--) {
+            result[i] = ids[heap[0]];
+            heap[0] = heap[i];
+            siftDown(heap, i, scores, ids);
+        }
+        return result;
+    }
+
+    // Higher score wins; equal scores go to the lower id
+    private static boolean better(int a, int b, float[] scores, int[] ids) {
+        return scores[a] > scores[b] || (scores[a] == scores[b] && ids[a] < ids[b]);
+    }
+
+    private static void siftUp(int[] heap, int i, float[] scores, int[] ids) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (!better(heap[parent], heap[i], scores, ids)) {
+                break;
+            }
+            swap(heap, i, parent);
+            i = parent;
+        }
+    }
+
+    private static void siftDown(int[] heap, int size, float[] scores, int[] ids) {
+        int i = 0;
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) {
+                break;
+            }
+            int worst = left + 1 < size && better(heap[left], heap[left + 1], scores, ids) ? left + 1 : left;
+            if (!better(heap[i], heap[worst], scores, ids)) {
+                break;
+            }
+            swap(heap, i, worst);
+            i = worst;
+        }
+    }
+
+    private static void swap(int[] heap, int i, int j) {
+        int t = heap[i];
+        heap[i] = heap[j];
+        heap[j] = t;
+    }
+
+    private static float weight(byte fields) {
+        if ((fields & NAME) != 0) return NAME_WEIGHT;
+        if ((fields & SUBTITLE) != 0) return SUBTITLE_WEIGHT;
+        return DETAILS_WEIGHT;
+    }
+
+    // Typos allowed for a query word: none for very short words, more for long ones
+    static int maxEdits(String term) {
+        if (term.length() <= 2 || isNumber(term)) return 0;
+        if (term.length() <= 5) return 1;
+        return 2;
+    }
+
+    // Numbers are matched exactly or by prefix, never by edit distance
+    private static boolean isFuzzyCandidate(String word) {
+        return word.length() >= 2 && !isNumber(word);
+    }
+
+    private static boolean isNumber(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            if (!Character.isDigit(word.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Lowercase runs of letters and digits
+    static void tokenize(String text, List<String> out) {
+        if (text == null) {
+            return;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                out.add(SearchIndex.normalize(text.substring(start, i)));
+                start = -1;
+            }
+        }
+    }
+
+    // Levenshtein distance, reusing the caller's rows (each at least b.length() + 1 long)
+    static int distance(String a, String b, int[] prev, int[] cur) {
+        int m = b.length();
+        for (int j = 0; j <= m; j++) {
+            prev[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            cur[0] = i;
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= m; j++) {
+                int cost = ca == b.charAt(j - 1) ? 0 : 1;
+                cur[j] = Math.min(Math.min(cur[j - 1] + 1, prev[j] + 1), prev[j - 1] + cost);
+            }
+            int[] t = prev;
+            prev = cur;
+            cur = t;
+        }
+        return prev[m];
+    }
+
+    // Entry ids of one word with the fields it occurs in; ids arrive in order
+    private static class Postings {
+        int[] ids = new int[4];
+        byte[] fields = new byte[4];
+        int size;
+
+        void add(int id, byte field) {
+            if (size > 0 && ids[size - 1] == id) {
+                fields[size - 1] |= field;
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                fields = Arrays.copyOf(fields, size * 2);
+            }
+            ids[size] = id;
+            fields[size++] = field;
+        }
+    }
+
+    private static class Expansion {
+        final SearchIndex.IntList words = new SearchIndex.IntList();
+        float[] quality;
+        long postings;
+    }
+
+    // Burkhard-Keller tree of dictionary word indexes under edit distance.
+    // Children hang off a node by their distance to it, so a search for words
+    // within d of the query only descends into edges in [dist - d, dist + d].
+    private static class BkTree {
+        private int[] word = new int[16];
+        private int[] firstChild = new int[16];
+        private int[] nextSibling = new int[16];
+        private int[] edge = new int[16];
+        private int nodes;
+        private int[] prev = new int[32], cur = new int[32];
+
+        void add(int w, String[] words) {
+            String s = words[w];
+            if (nodes == 0) {
+                newNode(w, 0);
+                return;
+            }
+            int node = 0;
+            while (true) {
+                int d = distance(s, words[word[node]]);
+                if (d == 0) {
+                    return;
+                }
+                int child = firstChild[node];
+                while (child >= 0 && edge[child] != d) {
+                    child = nextSibling[child];
+                }
+                if (child < 0) {
+                    int created = newNode(w, d);
+                    nextSibling[created] = firstChild[node];
+                    firstChild[node] = created;
+                    return;
+                }
+                node = child;
+            }
+        }
+
+        void search(String term, int maxDistance, String[] words, Hit hit) {
+            if (nodes == 0) {
+                return;
+            }
+            int[] p = new int[64], c = new int[64];
+            int[] stack = new int[64];
+            int top = 0;
+            stack[top++] = 0;
+            while (top > 0) {
+                int node = stack[--top];
+                String candidate = words[word[node]];
+                if (candidate.length() + 1 > p.length) {
+                    p = new int[candidate.length() + 1];
+                    c = new int[candidate.length() + 1];
+                }
+                int d = FuzzyIndex.distance(term, candidate, p, c);
+                if (d <= maxDistance) {
+                    hit.found(word[node], d);
+                }
+                for (int child = firstChild[node]; child >= 0; child = nextSibling[child]) {
+                    if (edge[child] >= d - maxDistance && edge[child] <= d + maxDistance) {
+                        if (top == stack.length) {
+                            stack = Arrays.copyOf(stack, top * 2);
+                        }
+                        stack[top++] = child;
+                    }
+                }
+            }
+        }
+
+        private int distance(String a, String b) {
+            if (b.length() + 1 > prev.length) {
+                prev = new int[b.length() + 1];
+                cur = new int[b.length() + 1];
+            }
+            return FuzzyIndex.distance(a, b, prev, cur);
+        }
+
+        private int newNode(int w, int d) {
+            if (nodes == word.length) {
+                int capacity = nodes * 2;
+                word = Arrays.copyOf(word, capacity);
+                firstChild = Arrays.copyOf(firstChild, capacity);
+                nextSibling = Arrays.copyOf(nextSibling, capacity);
+                edge = Arrays.copyOf(edge, capacity);
+            }
+            word[nodes] = w;
+            firstChild[nodes] = -1;
+            nextSibling[nodes] = -1;
+            edge[nodes] = d;
+            return nodes++;
+        }
+
+        interface Hit {
+            void found(int word, int distance);
+        }
+    }
+}
@@ -0,0 +1,352 @@
+package misc;
+
+import java.util.Arrays;
+
+public final class IdBitmap {
+    // Compressed set of non-negative ids for query evaluation, in the
+    // roaring style: ids are split on their high 16 bits into chunks of
+    // 65,536, and each chunk is stored the cheaper of two ways:
+    //
+    //   sparse   sorted low 16 bits as chars, up to SPARSE_MAX of them
+    //   dense    1,024 longs, one bit per id
+    //
+    // so a set costs about two bytes per id when it is sparse and one bit
+    // per possible id when it is dense, and AND / OR / ANDNOT work a chunk
+    // at a time, skipping chunks only one side has. Immutable; every
+    // operation returns a new set and shares nothing that could change.
+
+    static final int SPARSE_MAX = 4096; // 4,096 chars take the same 8 KB as a dense chunk
+    private static final int WORDS = 1024;
+
+    public static final IdBitmap EMPTY = new IdBitmap(new char[0], new Chunk[0], 0);
+
+    private final char[] keys;    // high 16 bits of each chunk, ascending
+    private final Chunk[] chunks;
+    private final int count;
+
+    private IdBitmap(char[] keys, Chunk[] chunks, int count) {
+        this.keys = keys;
+        this.chunks = chunks;
+        this.count = count;
+    }
+
+    // From sorted, distinct ids
+    public static IdBitmap of(int[] sortedIds) {
+        return of(sortedIds, sortedIds.length);
+    }
+
+    public static IdBitmap of(int[] sortedIds, int length) {
+        Builder b = new Builder();
+        int from = 0;
+        while (from < length) {
+            int key = sortedIds[from] >>> 16;
+            int to = from;
+            while (to < length && sortedIds[to] >>> 16 == key) {
+                to++;
+            }
+            int n = to - from;
+            if (n <= SPARSE_MAX) {
+                char[] values = new char[n];
+                for (int i = 0; i < n; i++) {
+                    values[i] = (char) sortedIds[from + i];
+                }
+                b.add(key, new Chunk(values, n));
+            } else {
+                long[] words = new long[WORDS];
+                for (int i = from; i < to; i++) {
+                    int low = sortedIds[i] & 0xFFFF;
+                    words[low >>> 6] |= 1L << low;
+                }
+                b.add(key, new Chunk(words, n));
+            }
+            from = to;
+        }
+        return b.build();
+    }
+
+    // Every id from 0 to size - 1
+    public static IdBitmap all(int size) {
+        Builder b = new Builder();
+        for (int start = 0; start < size; start += 1 << 16) {
+            int n = Math.min(1 << 16, size - start);
+            long[] words = new long[WORDS];
+            Arrays.fill(words, 0, n >>> 6, -1L);
+            if ((n & 63) != 0) {
+                words[n >>> 6] = (1L << n) - 1;
+            }
+            b.add(start >>> 16, n <= SPARSE_MAX ? sparse(words, n) : new Chunk(words, n));
+        }
+        return b.build();
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public boolean contains(int id) {
+        int i = Arrays.binarySearch(keys, (char) (id >>> 16));
+        return i >= 0 && chunks[i].contains((char) id);
+    }
+
+    // Ids in both
+    public IdBitmap and(IdBitmap other) {
+        Builder b = new Builder();
+        int i = 0, j = 0;
+        while (i < keys.length && j < other.keys.length) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                b.add(keys[i], chunks[i].and(other.chunks[j]));
+                i++;
+                j++;
+            }
+        }
+        return b.build();
+    }
+
+    // Ids in either
+    public IdBitmap or(IdBitmap other) {
+        Builder b = new Builder();
+        int i = 0, j = 0;
+        while (i < keys.length || j < other.keys.length) {
+            if (j == other.keys.length || (i < keys.length && keys[i] < other.keys[j])) {
+                b.add(keys[i], chunks[i]);
+                i++;
+            } else if (i == keys.length || keys[i] > other.keys[j]) {
+                b.add(other.keys[j], other.chunks[j]);
+                j++;
+            } else {
+                b.add(keys[i], chunks[i].or(other.chunks[j]));
+                i++;
+                j++;
+            }
+        }
+        return b.build();
+    }
+
+    // Ids in this one but not the other
+    public IdBitmap andNot(IdBitmap other) {
+        Builder b = new Builder();
+        int j = 0;
+        for (int i = 0; i < keys.length; i++) {
+            while (j < other.keys.length && other.keys[j] < keys[i]) {
+                j++;
+            }
+            if (j < other.keys.length && other.keys[j] == keys[i]) {
+                b.add(keys[i], chunks[i].andNot(other.chunks[j]));
+            } else {
+                b.add(keys[i], chunks[i]);
+            }
+        }
+        return b.build();
+    }
+
+    // Sorted ids
+    public int[] toArray() {
+        int[] ids = new int[count];
+        int n = 0;
+        for (int i = 0; i < keys.length; i++) {
+            n = chunks[i].copyTo(ids, n, keys[i] << 16);
+        }
+        return ids;
+    }
+
+    private static Chunk sparse(long[] words, int n) {
+        char[] values = new char[n];
+        int k = 0;
+        for (int w = 0; w < WORDS; w++) {
+            long word = words[w];
+            while (word != 0) {
+                values[k++] = (char) (w << 6 | Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+        return new Chunk(values, n);
+    }
+
+    // One chunk of 65,536 ids; exactly one of values and words is set
+    private static final class Chunk {
+        final char[] values; // sparse, the first n are used
+        final long[] words;  // dense
+        final int n;
+
+        Chunk(char[] values, int n) {
+            this.values = values;
+            this.words = null;
+            this.n = n;
+        }
+
+        Chunk(long[] words, int n) {
+            this.values = null;
+            this.words = words;
+            this.n = n;
+        }
+
+        boolean contains(char low) {
+            if (words != null) {
+                return (words[low >>> 6] & 1L << low) != 0;
+            }
+            return Arrays.binarySearch(values, 0, n, low) >= 0;
+        }
+
+        Chunk and(Chunk o) {
+            if (words == null && o.words == null) {
+                char[] out = new char[Math.min(n, o.n)];
+                int k = 0;
+                for (int i = 0, j = 0; i < n && j < o.n; ) {
+                    if (values[i] < o.values[j]) {
+                        i++;
+                    } else if (values[i] > o.values[j]) {
+                        j++;
+                    } else {
+                        out[k++] = values[i];
+                        i++;
+                        j++;
+                    }
+                }
+                return new Chunk(out, k);
+            }
+            if (words == null || o.words == null) {
+                Chunk sparse = words == null ? this : o;
+                long[] dense = words == null ? o.words : words;
+                char[] out = new char[sparse.n];
+                int k = 0;
+                for (int i = 0; i < sparse.n; i++) {
+                    char v = sparse.values[i];
+                    if ((dense[v >>> 6] & 1L << v) != 0) {
+                        out[k++] = v;
+                    }
+                }
+                return new Chunk(out, k);
+            }
+            long[] out = new long[WORDS];
+            int k = 0;
+            for (int w = 0; w < WORDS; w++) {
+                out[w] = words[w] & o.words[w];
+                k += Long.bitCount(out[w]);
+            }
+            return k <= SPARSE_MAX ? sparse(out, k) : new Chunk(out, k);
+        }
+
+        Chunk or(Chunk o) {
+            if (words == null && o.words == null && n + o.n <= SPARSE_MAX) {
+                char[] out = new char[n + o.n];
+                int k = 0, i = 0, j = 0;
+                while (i < n || j < o.n) {
+                    if (j == o.n || (i < n && values[i] < o.values[j])) {
+                        out[k++] = values[i++];
+                    } else if (i == n || values[i] > o.values[j]) {
+                        out[k++] = o.values[j++];
+                    } else {
+                        out[k++] = values[i++];
+                        j++;
+                    }
+                }
+                return new Chunk(out, k);
+            }
+            long[] out = words != null ? words.clone() : dense();
+            if (o.words != null) {
+                for (int w = 0; w < WORDS; w++) {
+                    out[w] |= o.words[w];
+                }
+            } else {
+                for (int i = 0; i < o.n; i++) {
+                    char v = o.values[i];
+                    out[v >>> 6] |= 1L << v;
+                }
+            }
+            int k = 0;
+            for (long word : out) {
+                k += Long.bitCount(word);
+            }
+            return k <= SPARSE_MAX ? sparse(out, k) : new Chunk(out, k);
+        }
+
+        Chunk andNot(Chunk o) {
+            if (words == null) {
+                char[] out = new char[n];
+                int k = 0;
+                for (int i = 0; i < n; i++) {
+                    if (!o.contains(values[i])) {
+                        out[k++] = values[i];
+                    }
+                }
+                return new Chunk(out, k);
+            }
+            long[] out = words.clone();
+            if (o.words != null) {
+                for (int w = 0; w < WORDS; w++) {
+                    out[w] &= ~o.words[w];
+                }
+            } else {
+                for (int i = 0; i < o.n; i++) {
+                    char v = o.values[i];
+                    out[v >>> 6] &= ~(1L << v);
+                }
+            }
+            int k = 0;
+            for (long word : out) {
+                k += Long.bitCount(word);
+            }
+            return k <= SPARSE_MAX ? sparse(out, k) : new Chunk(out, k);
+        }
+
+        long[] dense() {
+            long[] out = new long[WORDS];
+            for (int i = 0; i < n; i++) {
+                char v = values[i];
+                out[v >>> 6] |= 1L << v;
+            }
+            return out;
+        }
+
+        int copyTo(int[] ids, int at, int base) {
+            if (words == null) {
+                for (int i = 0; i < n; i++) {
+                    ids[at++] = base | values[i];
+                }
+                return at;
+            }
+            for (int w = 0; w < WORDS; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    ids[at++] = base | w << 6 | Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                }
+            }
+            return at;
+        }
+    }
+
+    // Collects chunks in key order, dropping empty ones
+    private static final class Builder {
+        char[] keys = new char[4];
+        Chunk[] chunks = new Chunk[4];
+        int size;
+        int count;
+
+        void add(int key, Chunk chunk) {
+            if (chunk.n == 0) {
+                return;
+            }
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                chunks = Arrays.copyOf(chunks, size * 2);
+            }
+            keys[size] = (char) key;
+            chunks[size] = chunk;
+            size++;
+            count += chunk.n;
+        }
+
+        IdBitmap build() {
+            return size == 0 ? EMPTY : new IdBitmap(Arrays.copyOf(keys, size), Arrays.copyOf(chunks, size), count);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package misc;
+
+import classes.RosterEntry;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+public class MappedCsvReader {
+    // Memory-mapped RFC 4180 reader for roster files.
+    // Delimiters are ASCII so records can be split on raw UTF-8 bytes; each
+    // field is located by offsets and decoded once into a String. Supports
+    // quoted fields, "" escapes and real newlines inside quotes, and still
+    // expands the literal \n sequences our CSV files use in Details.
+
+    // Files larger than this are mapped in consecutive windows
+    private static final long WINDOW_SIZE = 1L << 30;
+
+    private final Consumer<RosterEntry> consumer;
+    private final String source;
+    private final boolean hasHeader;
+    private byte[] scratch = new byte[256];
+    private final int[] fieldStart = new int[3];
+    private final int[] fieldEnd = new int[3];
+    private final boolean[] fieldEscaped = new boolean[3];
+    private long recordNumber;
+    private long count;
+
+    private MappedCsvReader(String source, boolean hasHeader, Consumer<RosterEntry> consumer) {
+        this.source = source;
+        this.hasHeader = hasHeader;
+        this.consumer = consumer;
+    }
+
+    // Stream every entry in the file (header row skipped) to the consumer, with
+    // ids counting data rows from 0. Returns the number of entries delivered.
+    public static long stream(Path file, Consumer<RosterEntry> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return streamRange(channel, 0, channel.size(), file.toString(), consumer);
+        }
+    }
+
+    // Stream the records in [start, start + length), which must begin and end on
+    // record boundaries. Only the range starting at byte 0 has a header row.
+    // Ids count from 0 within the range.
+    static long streamRange(FileChannel channel, long start, long length, String source,
+                            Consumer<RosterEntry> consumer) throws IOException {
+        MappedCsvReader reader = new MappedCsvReader(source, start == 0, consumer);
+        long end = start + length;
+        long position = start;
+        while (position < end) {
+            long windowLength = Math.min(WINDOW_SIZE, end - position);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, windowLength);
+            boolean last = position + windowLength >= end;
+            int consumed = reader.parse(buffer, position == 0, last);
+            if (consumed == 0) {
+                throw new IOException("Record at byte " + position + " of " + source + " exceeds mapping window");
+            }
+            position += consumed;
+        }
+        return reader.count;
+    }
+
+    // Parse whole records in the buffer; returns how many bytes were consumed.
+    // A record cut off by the end of a non-final window is left for the next window.
+    int parse(MappedByteBuffer buf, boolean first, boolean last) {
+        int limit = buf.limit();
+        int pos = 0;
+
+        // Skip UTF-8 byte order mark
+        if (first && limit >= 3 && buf.get(0) == (byte) 0xEF && buf.get(1) == (byte) 0xBB && buf.get(2) == (byte) 0xBF) {
+            pos = 3;
+        }
+
+        while (pos < limit) {
+            int recordStart = pos;
+            int fields = 0;
+            boolean complete = false;
+
+            // One record: a sequence of fields ending at an unquoted line break
+            while (true) {
+                int start = pos;
+                boolean quoted = false;
+                boolean escaped = false;
+
+                // Leading spaces before an opening quote are tolerated
+                int p = pos;
+                while (p < limit && buf.get(p) == ' ') p++;
+                if (p < limit && buf.get(p) == '"') {
+                    quoted = true;
+                    pos = p + 1;
+                    start = pos;
+                    while (pos < limit) {
+                        byte b = buf.get(pos);
+                        if (b == '"') {
+                            if (pos + 1 < limit && buf.get(pos + 1) == '"') {
+                                escaped = true;
+                                pos += 2;
+                                continue;
+                            }
+                            break;
+                        }
+                        pos++;
+                    }
+                    if (pos >= limit) {
+                        break; // unterminated quote: incomplete unless this is the last window
+                    }
+                }
+
+                int end;
+                if (quoted) {
+                    end = pos;
+                    pos++; // closing quote
+                    // Ignore anything between the closing quote and the delimiter
+                    while (pos < limit && buf.get(pos) != ',' && buf.get(pos) != '\n' && buf.get(pos) != '\r') pos++;
+                } else {
+                    while (pos < limit && buf.get(pos) != ',' && buf.get(pos) != '\n' && buf.get(pos) != '\r') pos++;
+                    end = pos;
+                }
+
+                if (fields < 3) {
+                    fieldStart[fields] = start;
+                    fieldEnd[fields] = end;
+                    fieldEscaped[fields] = escaped;
+                }
+                fields++;
+
+                if (pos >= limit) {
+                    complete = last;
+                    break;
+                }
+                byte delim = buf.get(pos);
+                if (delim == ',') {
+                    pos++;
+                    continue;
+                }
+                // Line break, accepting \r\n, \n or a lone \r
+                pos++;
+                if (delim == '\r' && pos < limit && buf.get(pos) == '\n') pos++;
+                complete = true;
+                break;
+            }
+
+            if (!complete) {
+                if (last) {
+                    // Unterminated quote at end of file: take what we have
+                    emit(buf, fields, recordStart, limit);
+                    return limit;
+                }
+                return recordStart;
+            }
+            emit(buf, fields, recordStart, pos);
+        }
+        return limit;
+    }
+
+    private void emit(MappedByteBuffer buf, int fields, int recordStart, int recordEnd) {
+        recordNumber++;
+        if (hasHeader && recordNumber == 1) {
+            return; // header
+        }
+        if (fields == 1 && fieldStart[0] == fieldEnd[0]) {
+            return; // blank line
+        }
+        if (fields < 3) {
+            System.err.println("Warning: Record " + recordNumber + " in " + source + " has only " + fields + " fields");
+            return;
+        }
+        consumer.accept(new RosterEntry(
+            (int) count,
+            decode(buf, 0).trim(),
+            decode(buf, 1).trim(),
+            decode(buf, 2).trim().replace("\\n", "\n")
+        ));
+        count++;
+    }
+
+    // Decode one field, collapsing "" escapes while copying into the scratch buffer
+    private String decode(MappedByteBuffer buf, int field) {
+        int start = fieldStart[field];
+        int length = fieldEnd[field] - start;
+        if (length > scratch.length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+
+        if (!fieldEscaped[field]) {
+            buf.get(start, scratch, 0, length);
+            return new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+
+        int n = 0;
+        for (int i = start; i < start + length; i++) {
+            byte b = buf.get(i);
+            scratch[n++] = b;
+            if (b == '"') i++; // skip the second quote of the pair
+        }
+        return new String(scratch, 0, n, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,230 @@
+package misc;
+
+import classes.RosterEntry;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+public class ParallelCsvLoader {
+    // Splits a roster file into byte ranges that start on record boundaries and
+    // parses them concurrently with MappedCsvReader.
+    //
+    // Boundaries are found quote-aware in two passes: every nominal chunk counts
+    // its '"' bytes in parallel, a prefix sum of the parities says whether each
+    // chunk starts inside a quoted field, and each chunk then moves its start to
+    // just past the first line break that is outside quotes (LF, CRLF or a lone
+    // CR, as MappedCsvReader accepts). "" escapes add two
+    // quotes and so never change the parity.
+
+    // Chunks smaller than this aren't worth a task
+    private static final long MIN_CHUNK_SIZE = 1L << 20;
+    // Chunks are mapped whole, so keep them within a single mapping
+    private static final long MAX_CHUNK_SIZE = 1L << 30;
+
+    public static Result load(Path file) throws IOException {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        return load(file, pool.getParallelism() * 4, pool);
+    }
+
+    public static Result load(Path file, int chunkCount, ForkJoinPool pool) throws IOException {
+        long started = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long chunkSize = Math.max(MIN_CHUNK_SIZE, (size + chunkCount - 1) / Math.max(chunkCount, 1));
+            chunkSize = Math.min(chunkSize, MAX_CHUNK_SIZE);
+            int chunks = (int) Math.max(1, (size + chunkSize - 1) / chunkSize);
+
+            long[] bounds = findBoundaries(channel, size, chunkSize, chunks, pool);
+            long split = System.nanoTime();
+
+            List<ChunkTask> tasks = new ArrayList<>(chunks);
+            for (int i = 0; i < chunks; i++) {
+                tasks.add(new ChunkTask(channel, i, bounds[i], bounds[i + 1], file.toString()));
+            }
+            invokeAll(pool, tasks);
+
+            // Chunks are already in file order, so concatenating keeps the original
+            // ordering. Each chunk numbered its rows from 0; shift them to file row numbers.
+            int total = 0;
+            for (ChunkTask task : tasks) {
+                total += task.entries.size();
+            }
+            List<RosterEntry> entries = new ArrayList<>(total);
+            List<ChunkTiming> timings = new ArrayList<>(chunks);
+            for (ChunkTask task : tasks) {
+                int first = entries.size();
+                if (first == 0) {
+                    entries.addAll(task.entries);
+                } else {
+                    for (RosterEntry entry : task.entries) {
+                        entries.add(entry.withId(first + entry.id));
+                    }
+                }
+                timings.add(task.timing);
+            }
+            return new Result(entries, timings, split - started, System.nanoTime() - started);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // Returns chunks + 1 offsets; chunk i covers [bounds[i], bounds[i + 1])
+    private static long[] findBoundaries(FileChannel channel, long size, long chunkSize, int chunks,
+                                         ForkJoinPool pool) throws IOException {
+        long[] bounds = new long[chunks + 1];
+        bounds[chunks] = size;
+        if (chunks == 1) {
+            return bounds;
+        }
+
+        MappedByteBuffer[] buffers = new MappedByteBuffer[chunks];
+        for (int i = 0; i < chunks; i++) {
+            long start = i * chunkSize;
+            buffers[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(chunkSize, size - start));
+        }
+
+        // Pass 1: quote parity of each nominal chunk
+        boolean[] odd = new boolean[chunks];
+        List<ForkJoinTask<?>> counts = new ArrayList<>(chunks);
+        for (int i = 0; i < chunks; i++) {
+            MappedByteBuffer buf = buffers[i];
+            int index = i;
+            counts.add(ForkJoinTask.adapt(() -> {
+                int quotes = 0;
+                for (int p = 0, limit = buf.limit(); p < limit; p++) {
+                    if (buf.get(p) == '"') quotes++;
+                }
+                odd[index] = (quotes & 1) == 1;
+            }));
+        }
+        invokeAll(pool, counts);
+
+        // Pass 2: move each nominal start to the next unquoted line break
+        boolean inQuotes = false;
+        for (int i = 1; i < chunks; i++) {
+            inQuotes ^= odd[i - 1];
+            bounds[i] = nextRecordStart(buffers, chunkSize, size, i * chunkSize, inQuotes);
+        }
+        // A single huge record can swallow whole chunks; keep bounds monotonic
+        for (int i = 1; i < chunks; i++) {
+            bounds[i] = Math.max(bounds[i], bounds[i - 1]);
+        }
+        return bounds;
+    }
+
+    private static void invokeAll(ForkJoinPool pool, List<? extends ForkJoinTask<?>> tasks) {
+        pool.invoke(ForkJoinTask.adapt(() -> {
+            ForkJoinTask.invokeAll(tasks);
+        }));
+    }
+
+    private static long nextRecordStart(MappedByteBuffer[] buffers, long chunkSize, long size,
+                                        long offset, boolean inQuotes) {
+        for (long p = offset; p < size; p++) {
+            byte b = byteAt(buffers, chunkSize, p);
+            if (b == '"') {
+                inQuotes = !inQuotes;
+            } else if (b == '\n' && !inQuotes) {
+                return p + 1;
+            } else if (b == '\r' && !inQuotes) {
+                // CRLF ends after the LF; a lone CR (old Mac files) ends here
+                return p + 1 < size && byteAt(buffers, chunkSize, p + 1) == '\n' ? p + 2 : p + 1;
+            }
+        }
+        return size;
+    }
+
+    private static byte byteAt(MappedByteBuffer[] buffers, long chunkSize, long offset) {
+        return buffers[(int) (offset / chunkSize)].get((int) (offset % chunkSize));
+    }
+
+    private static class ChunkTask extends RecursiveTask<Void> {
+        private final FileChannel channel;
+        private final int index;
+        private final long start;
+        private final long end;
+        private final String source;
+        final List<RosterEntry> entries = new ArrayList<>();
+        ChunkTiming timing;
+
+        ChunkTask(FileChannel channel, int index, long start, long end, String source) {
+            this.channel = channel;
+            this.index = index;
+            this.start = start;
+            this.end = end;
+            this.source = source;
+        }
+
+        @Override
+        protected Void compute() {
+            long t0 = System.nanoTime();
+            try {
+                if (end > start) {
+                    MappedCsvReader.streamRange(channel, start, end - start,
+                        source + " [chunk " + index + "]", entries::add);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            timing = new ChunkTiming(index, start, end - start, entries.size(),
+                System.nanoTime() - t0, Thread.currentThread().getName());
+            return null;
+        }
+    }
+
+    public static class ChunkTiming {
+        public final int index;
+        public final long offset;
+        public final long length;
+        public final int entries;
+        public final long nanos;
+        public final String thread;
+
+        ChunkTiming(int index, long offset, long length, int entries, long nanos, String thread) {
+            this.index = index;
+            this.offset = offset;
+            this.length = length;
+            this.entries = entries;
+            this.nanos = nanos;
+            this.thread = thread;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("chunk %3d  @%,14d  %8.1f MB  %,9d entries  %8.1f ms  %s",
+                index, offset, length / 1048576.0, entries, nanos / 1e6, thread);
+        }
+    }
+
+    public static class Result {
+        public final List<RosterEntry> entries;
+        public final List<ChunkTiming> chunks;
+        public final long splitNanos;
+        public final long totalNanos;
+
+        Result(List<RosterEntry> entries, List<ChunkTiming> chunks, long splitNanos, long totalNanos) {
+            this.entries = entries;
+            this.chunks = chunks;
+            this.splitNanos = splitNanos;
+            this.totalNanos = totalNanos;
+        }
+
+        public String report() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("Parsed %,d entries in %d chunks: %.1f ms total, %.1f ms finding boundaries%n",
+                entries.size(), chunks.size(), totalNanos / 1e6, splitNanos / 1e6));
+            for (ChunkTiming chunk : chunks) {
+                sb.append("  ").append(chunk).append(System.lineSeparator());
+            }
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package misc;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+public class PerfEvents {
+    // Flight Recorder events around the app's slow paths. They are only
+    // written while a recording is running, e.g.
+    //
+    //   java -XX:StartFlightRecording=filename=ravens.jfr,settings=profile App
+    //
+    // and look like any other event in JDK Mission Control or `jfr print
+    // --events ravens.Search ravens.jfr`. Without a recording, begin() and
+    // commit() return at once and the JIT drops the event object, so the
+    // call sites stay in place unconditionally.
+
+    private PerfEvents() {
+    }
+
+    @Name("ravens.Search")
+    @Label("Roster Search")
+    @Category({"Ravens", "UI"})
+    @Description("Matching a query on the search worker, or applying the result on the EDT")
+    public static class Search extends Event {
+        @Label("Phase")
+        public String phase; // "match" or "apply"
+
+        @Label("Query")
+        public String query;
+
+        @Label("Matches")
+        public int matches;
+    }
+
+    @Name("ravens.Filter")
+    @Label("Position Filter")
+    @Category({"Ravens", "UI"})
+    public static class Filter extends Event {
+        @Label("Position")
+        public String position; // "all" for every position
+
+        @Label("Matching Cards")
+        public int matching;
+
+        @Label("Cards")
+        public int cards;
+    }
+
+    @Name("ravens.ToggleAll")
+    @Label("Expand or Collapse All")
+    @Category({"Ravens", "UI"})
+    public static class ToggleAll extends Event {
+        @Label("Expand")
+        public boolean expand;
+
+        @Label("Cards")
+        public int cards;
+    }
+
+    @Name("ravens.Layout")
+    @Label("Card Layout")
+    @Category({"Ravens", "UI"})
+    @Description("One layout pass over the card column")
+    public static class Layout extends Event {
+        @Label("Components")
+        public int components;
+    }
+
+    @Name("ravens.RosterLoad")
+    @Label("Roster Load")
+    @Category({"Ravens", "Data"})
+    public static class RosterLoad extends Event {
+        @Label("Path")
+        public String path;
+
+        @Label("Entries")
+        public int entries;
+
+        @Label("Through Snapshot")
+        public boolean snapshot;
+    }
+
+    @Name("ravens.EdtStall")
+    @Label("EDT Stall")
+    @Category({"Ravens", "UI"})
+    @Description("One event kept the event dispatch thread busy past the watchdog threshold")
+    public static class EdtStall extends Event {
+        @Label("Event")
+        public String event;
+
+        @Label("Stall")
+        @Timespan(Timespan.MILLISECONDS)
+        public long stall;
+
+        @Label("Top Frame")
+        public String topFrame;
+    }
+}
@@ -0,0 +1,56 @@
+package misc;
+
+import classes.Position;
+import classes.RosterEntry;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+public class PositionIndex {
+    // Card ids grouped by position, built once per load. Ids are positions in
+    // the list passed to the constructor, so every list is sorted ascending
+    // and lines up with SearchIndex ids.
+
+    private static final int[] EMPTY = new int[0];
+
+    private final Map<Position, int[]> ids = new EnumMap<>(Position.class);
+    private final int size;
+
+    public PositionIndex(List<RosterEntry> entries) {
+        size = entries.size();
+        Map<Position, SearchIndex.IntList> building = new EnumMap<>(Position.class);
+        for (int id = 0; id < size; id++) {
+            Position position = entries.get(id).position;
+            if (position != null) {
+                building.computeIfAbsent(position, k -> new SearchIndex.IntList()).add(id);
+            }
+        }
+        for (Map.Entry<Position, SearchIndex.IntList> e : building.entrySet()) {
+            ids.put(e.getKey(), e.getValue().toArray());
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Sorted ids of the cards in a position, without looking at any other card
+    public int[] ids(Position position) {
+        return ids.getOrDefault(position, EMPTY);
+    }
+
+    // Sorted ids of every card not in the position
+    public int[] others(Position position) {
+        int[] matching = ids(position);
+        int[] others = new int[size - matching.length];
+        int n = 0, j = 0;
+        for (int id = 0; id < size; id++) {
+            if (j < matching.length && matching[j] == id) {
+                j++;
+            } else {
+                others[n++] = id;
+            }
+        }
+        return others;
+    }
+}
@@ -0,0 +1,374 @@
+package misc;
+
+import classes.RosterEntry;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+public class RosterCatalog {
+    // Every roster CSV in one directory, one shard per team and season, e.g.
+    // ravens_2024.csv or steelers_2023.csv. Shards live in one of three tiers:
+    //
+    //   loaded    a RosterQuery with every index; always the active shard plus
+    //             the ravens.catalog.maxLoaded - 1 most recently used others
+    //   compact   RosterColumns only, enough to scan for cross-shard search;
+    //             the ravens.catalog.maxCompact most recently used
+    //   on disk   nothing in memory; read back through the binary snapshot
+    //             (see RosterSnapshot), which is much cheaper than the CSV
+    //
+    // Shards fall down a tier when evicted. Loading and cross-shard search run
+    // one shard per task on a pool of ravens.catalog.threads daemon threads.
+
+    // "<team>_<season>", the season a year or a span like 2024-25
+    private static final Pattern SHARD_NAME = Pattern.compile("(.+?)[_-](\\d{4}(?:-\\d{2,4})?)");
+
+    private final Path directory;
+    private final List<Shard> shards;
+    private final Map<String, Shard> byKey = new HashMap<>();
+    private final int maxLoaded;
+    private final int maxCompact;
+    private final ExecutorService workers;
+
+    // Access-ordered, least recently used first; guarded by this
+    private final LinkedHashMap<Shard, RosterQuery> loaded = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<Shard, RosterColumns> compact = new LinkedHashMap<>(64, 0.75f, true);
+    private Shard active;
+
+    public RosterCatalog(Path directory) throws IOException {
+        this(directory,
+            Integer.getInteger("ravens.catalog.maxLoaded", 2),
+            Integer.getInteger("ravens.catalog.maxCompact", 128),
+            Integer.getInteger("ravens.catalog.threads", Runtime.getRuntime().availableProcessors()));
+    }
+
+    public RosterCatalog(Path directory, int maxLoaded, int maxCompact, int threads) throws IOException {
+        this.directory = directory;
+        this.maxLoaded = Math.max(1, maxLoaded);
+        this.maxCompact = Math.max(0, maxCompact);
+
+        List<Shard> found = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(Files::isRegularFile)
+                .filter(p -> p.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".csv"))
+                .sorted(Comparator.comparing(p -> p.getFileName().toString()))
+                .forEach(p -> found.add(new Shard(p)));
+        }
+        shards = Collections.unmodifiableList(found);
+        for (Shard shard : shards) {
+            byKey.put(shard.key, shard);
+        }
+
+        AtomicInteger threadCount = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(Math.max(1, threads), r -> {
+            Thread t = new Thread(r, "roster-catalog-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    // In file name order
+    public List<Shard> shards() {
+        return shards;
+    }
+
+    // Null when no CSV in the directory has that key (its file name without .csv)
+    public Shard shard(String key) {
+        return byKey.get(key);
+    }
+
+    // -Dravens.roster.shard if it names a shard, else the first Ravens shard,
+    // else the first one; null for an empty directory
+    public Shard initialShard() {
+        Shard chosen = shard(System.getProperty("ravens.roster.shard", ""));
+        if (chosen != null) {
+            return chosen;
+        }
+        for (Shard shard : shards) {
+            if (shard.team.equalsIgnoreCase("ravens")) {
+                return shard;
+            }
+        }
+        return shards.isEmpty() ? null : shards.get(0);
+    }
+
+    public synchronized Shard active() {
+        return active;
+    }
+
+    // Makes the shard the active one, which is never evicted, and returns it fully loaded
+    public RosterQuery activate(Shard shard) {
+        synchronized (this) {
+            active = shard;
+        }
+        return query(shard);
+    }
+
+    // Fully loaded form of any shard, loading it if needed
+    public RosterQuery query(Shard shard) {
+        synchronized (shard) {
+            synchronized (this) {
+                RosterQuery query = loaded.get(shard);
+                if (query != null) {
+                    return query;
+                }
+            }
+            RosterQuery query = new RosterQuery(shard.repository.getRoster());
+            synchronized (this) {
+                compact.remove(shard);
+                loaded.put(shard, query);
+                evictLoaded();
+            }
+            return query;
+        }
+    }
+
+    // Where the shard currently lives: "active", "loaded", "compact" or "on disk"
+    public synchronized String tier(Shard shard) {
+        if (shard == active) {
+            return "active";
+        }
+        return loaded.containsKey(shard) ? "loaded" : compact.containsKey(shard) ? "compact" : "on disk";
+    }
+
+    // Reads every shard that isn't in memory yet into compact form, in parallel,
+    // stopping once the compact tier is full
+    public void loadAll() {
+        List<Future<?>> tasks = new ArrayList<>();
+        for (Shard shard : shards) {
+            tasks.add(workers.submit(() -> {
+                synchronized (this) {
+                    if (loaded.containsKey(shard) || compact.containsKey(shard) || compact.size() >= maxCompact) {
+                        return;
+                    }
+                }
+                columns(shard);
+            }));
+        }
+        for (Future<?> task : tasks) {
+            await(task);
+        }
+    }
+
+    // Entries containing the text, or matching a BooleanQuery (same matching
+    // as RosterQuery.search), in every shard, optionally leaving out the
+    // active one. Shards are searched in parallel and reported in shard
+    // order, entries in CSV row order; shards without a match are left out.
+    // A blank query matches nothing here.
+    public List<Hits> search(String query, boolean includeActive) {
+        String q = SearchIndex.normalize(query).trim();
+        if (q.isEmpty()) {
+            return Collections.emptyList();
+        }
+        BooleanQuery parsed = BooleanQuery.parse(query);
+        RosterStats.Condition comparison = parsed == null ? RosterStats.comparison(q) : null;
+        Shard skip = includeActive ? null : active();
+        List<Future<Hits>> tasks = new ArrayList<>(shards.size());
+        for (Shard shard : shards) {
+            if (shard != skip) {
+                tasks.add(workers.submit(() -> search(shard, q, parsed, comparison)));
+            }
+        }
+        List<Hits> merged = new ArrayList<>();
+        for (Future<Hits> task : tasks) {
+            Hits hits = await(task);
+            if (hits != null && !hits.entries.isEmpty()) {
+                merged.add(hits);
+            }
+        }
+        return merged;
+    }
+
+    public void close() {
+        workers.shutdownNow();
+    }
+
+    // Compact rows are matched one at a time: a BooleanQuery or a stat
+    // comparison against each row, otherwise the text contains the query
+    private Hits search(Shard shard, String q, BooleanQuery parsed, RosterStats.Condition comparison) {
+        RosterQuery query;
+        synchronized (this) {
+            query = loaded.get(shard);
+        }
+        List<RosterEntry> entries = new ArrayList<>();
+        if (query != null) {
+            for (int id : parsed != null ? query.search(parsed) : query.search(q)) {
+                entries.add(query.entry(id));
+            }
+            entries.sort(Comparator.comparingInt(e -> e.id));
+        } else {
+            RosterColumns columns = columns(shard);
+            for (int row = 0; row < columns.size(); row++) {
+                if (parsed != null) {
+                    RosterEntry entry = columns.entry(row);
+                    if (parsed.matches(entry)) {
+                        entries.add(entry);
+                    }
+                    continue;
+                }
+                if (comparison != null) {
+                    if (comparison.test(columns.details(row))) {
+                        entries.add(columns.entry(row));
+                    }
+                    continue;
+                }
+                String text = columns.displayName(row) + " " + columns.subtitle(row) + " " + columns.details(row);
+                if (SearchIndex.normalize(text).contains(q)) {
+                    entries.add(columns.entry(row));
+                }
+            }
+        }
+        return new Hits(shard, entries);
+    }
+
+    // Compact form of a shard that isn't loaded, reading it from disk if needed
+    private RosterColumns columns(Shard shard) {
+        synchronized (shard) {
+            synchronized (this) {
+                RosterColumns columns = compact.get(shard);
+                if (columns != null) {
+                    return columns;
+                }
+                RosterQuery query = loaded.get(shard);
+                if (query != null) {
+                    return compactOf(query);
+                }
+            }
+            RosterColumns columns = RosterColumns.of(RosterSnapshot.loadOrRebuild(shard.path));
+            synchronized (this) {
+                compact.put(shard, columns);
+                evictCompact();
+            }
+            return columns;
+        }
+    }
+
+    // Push the least recently used shards beyond maxLoaded down to compact
+    private void evictLoaded() {
+        Iterator<Map.Entry<Shard, RosterQuery>> it = loaded.entrySet().iterator();
+        int excess = loaded.size() - maxLoaded;
+        while (excess > 0 && it.hasNext()) {
+            Map.Entry<Shard, RosterQuery> e = it.next();
+            if (e.getKey() == active) {
+                continue;
+            }
+            it.remove();
+            e.getKey().repository.unload();
+            if (maxCompact > 0) {
+                compact.put(e.getKey(), compactOf(e.getValue()));
+            }
+            excess--;
+        }
+        evictCompact();
+    }
+
+    private void evictCompact() {
+        Iterator<Shard> it = compact.keySet().iterator();
+        while (compact.size() > maxCompact && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    // Rows in CSV order, whatever order the query keeps its entries in
+    private static RosterColumns compactOf(RosterQuery query) {
+        List<RosterEntry> rows = new ArrayList<>(query.entries());
+        rows.sort(Comparator.comparingInt(e -> e.id));
+        return RosterColumns.of(rows);
+    }
+
+    private static <T> T await(Future<T> task) {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            System.err.println("Error loading roster shard: " + e.getCause());
+            return null;
+        }
+    }
+
+    // One CSV file in the catalog
+    public static class Shard {
+        public final Path path;
+        public final String key;    // file name without .csv, e.g. "ravens_2024"
+        public final String team;   // "ravens"; the whole key if it has no season
+        public final String season; // "2024", or "" if the name has none
+        final RosterRepository repository;
+
+        Shard(Path path) {
+            this.path = path.toAbsolutePath();
+            String name = path.getFileName().toString();
+            this.key = name.substring(0, name.length() - ".csv".length());
+            Matcher m = SHARD_NAME.matcher(key);
+            if (m.matches()) {
+                this.team = m.group(1);
+                this.season = m.group(2);
+            } else {
+                this.team = key;
+                this.season = "";
+            }
+            this.repository = new RosterRepository(this.path);
+        }
+
+        // The shard's own repository; the catalog unloads it when the shard is evicted
+        public RosterRepository getRepository() {
+            return repository;
+        }
+
+        // "Ravens 2024"
+        public String label() {
+            StringBuilder sb = new StringBuilder();
+            for (String word : team.split("[_\\-\\s]+")) {
+                if (word.isEmpty()) {
+                    continue;
+                }
+                if (sb.length() > 0) {
+                    sb.append(' ');
+                }
+                sb.append(Character.toUpperCase(word.charAt(0))).append(word.substring(1));
+            }
+            if (!season.isEmpty()) {
+                sb.append(' ').append(season);
+            }
+            return sb.toString();
+        }
+
+        @Override
+        public String toString() {
+            return key;
+        }
+    }
+
+    // Matches from one shard
+    public static class Hits {
+        public final Shard shard;
+        public final List<RosterEntry> entries;
+
+        Hits(Shard shard, List<RosterEntry> entries) {
+            this.shard = shard;
+            this.entries = Collections.unmodifiableList(entries);
+        }
+    }
+}
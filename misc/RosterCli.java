@@ -0,0 +1,275 @@
+package misc;
+
+import classes.Position;
+import classes.RosterEntry;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+public class RosterCli {
+    // Line-oriented query interface over RosterQuery, no display needed:
+    //
+    //   java -cp out misc.RosterCli [--count] [roster.csv | roster-dir] < queries.txt
+    //
+    // One query per line:
+    //   search <text>       entries whose text contains <text> (a bare line does the same)
+    //   rank <text>         best typo-tolerant matches for <text>, best first
+    //   position <QB|...>   entries in a position group
+    //   category <name>     entries in a category, section or subsection
+    //   sections            the section / subsection layout with entry counts
+    //   help, quit
+    //
+    // Given a directory, every CSV in it is a shard of a RosterCatalog and the
+    // queries above go to the active shard. Three more commands:
+    //   shards              every shard with its key, label and tier
+    //   use <key>           make another shard active
+    //   all <text>          search every shard; each line ends with the shard key
+    //
+    // Each answer is a "# <count>" line followed by one tab-separated line per
+    // entry (name, subtitle, category). With --count only the "# <count>"
+    // lines are written. Output is flushed whenever the input has no more
+    // lines ready, so piping works at full speed and typing still responds.
+
+    private static final int RANKED_RESULTS = Integer.getInteger("ravens.search.topK", 50);
+
+    private final RosterRepository repository; // null with a catalog
+    private final RosterCatalog catalog; // null for a single CSV
+    private final PrintWriter out;
+    private final boolean countOnly;
+    private RosterQuery query;
+    private List<RosterEntry> loaded;
+
+    public RosterCli(RosterRepository repository, PrintWriter out, boolean countOnly) {
+        this.repository = repository;
+        this.catalog = null;
+        this.out = out;
+        this.countOnly = countOnly;
+    }
+
+    // Queries go to the catalog's initial shard until "use" picks another
+    public RosterCli(RosterCatalog catalog, PrintWriter out, boolean countOnly) {
+        RosterCatalog.Shard shard = catalog.initialShard();
+        if (shard == null) {
+            throw new IllegalArgumentException("No roster CSVs in " + catalog.getDirectory());
+        }
+        catalog.activate(shard);
+        this.repository = null;
+        this.catalog = catalog;
+        this.out = out;
+        this.countOnly = countOnly;
+    }
+
+    public static void main(String[] args) throws IOException {
+        boolean countOnly = false;
+        Path csv = Paths.get("ravens_roster.csv");
+        for (String arg : args) {
+            if (arg.equals("--count")) {
+                countOnly = true;
+            } else if (!arg.equals("--cli")) {
+                csv = Paths.get(arg);
+            }
+        }
+
+        // Loader progress goes to stderr so stdout only carries answers
+        System.setOut(System.err);
+        PrintWriter out = new PrintWriter(new BufferedWriter(
+            new OutputStreamWriter(new FileOutputStream(FileDescriptor.out), StandardCharsets.UTF_8), 1 << 16));
+        RosterCli cli = Files.isDirectory(csv)
+            ? new RosterCli(new RosterCatalog(csv.toAbsolutePath()), out, countOnly)
+            : new RosterCli(new RosterRepository(csv.toAbsolutePath()), out, countOnly);
+
+        BufferedReader in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8), 1 << 16);
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (!cli.answer(line)) {
+                break;
+            }
+            if (!in.ready()) {
+                out.flush();
+            }
+        }
+        out.flush();
+    }
+
+    // Answers one query line; returns false once asked to quit
+    public boolean answer(String line) {
+        String trimmed = line.trim();
+        if (trimmed.isEmpty()) {
+            return true;
+        }
+        int space = trimmed.indexOf(' ');
+        String command = (space < 0 ? trimmed : trimmed.substring(0, space)).toLowerCase();
+        String argument = space < 0 ? "" : trimmed.substring(space + 1).trim();
+
+        RosterQuery q = current();
+        switch (command) {
+            case "quit":
+            case "exit":
+                return false;
+            case "help":
+                out.println("# commands: search <text> | rank <text> | position <" + positionNames() + "> | category <name> | sections"
+                    + (catalog != null ? " | shards | use <key> | all <text>" : "") + " | quit");
+                return true;
+            case "shards":
+                if (catalog != null) {
+                    printShards();
+                    return true;
+                }
+                break;
+            case "use":
+                if (catalog != null) {
+                    use(argument);
+                    return true;
+                }
+                break;
+            case "all":
+                if (catalog != null) {
+                    printHits(catalog.search(argument, true));
+                    return true;
+                }
+                break;
+            case "search":
+                print(q, q.search(argument));
+                return true;
+            case "rank":
+                print(q, q.ranked(argument, RANKED_RESULTS));
+                return true;
+            case "position":
+                Position position = Position.parse(argument);
+                if (position == null) {
+                    out.println("# error: unknown position '" + argument + "', expected one of " + positionNames());
+                } else {
+                    print(q, q.position(position));
+                }
+                return true;
+            case "category":
+                print(q, q.category(argument));
+                return true;
+            case "sections":
+                printSections(q);
+                return true;
+            default:
+                break;
+        }
+        print(q, q.search(trimmed));
+        return true;
+    }
+
+    private void use(String key) {
+        RosterCatalog.Shard shard = catalog.shard(key);
+        if (shard == null) {
+            out.println("# error: unknown shard '" + key + "', see shards");
+            return;
+        }
+        catalog.activate(shard);
+        out.println("# using " + shard.key);
+    }
+
+    private void printShards() {
+        out.print("# ");
+        out.println(catalog.shards().size());
+        if (countOnly) {
+            return;
+        }
+        for (RosterCatalog.Shard shard : catalog.shards()) {
+            out.print(shard.key);
+            out.print('\t');
+            out.print(shard.label());
+            out.print('\t');
+            out.println(catalog.tier(shard));
+        }
+    }
+
+    private void printHits(List<RosterCatalog.Hits> hits) {
+        int total = 0;
+        for (RosterCatalog.Hits h : hits) {
+            total += h.entries.size();
+        }
+        out.print("# ");
+        out.println(total);
+        if (countOnly) {
+            return;
+        }
+        for (RosterCatalog.Hits h : hits) {
+            for (RosterEntry entry : h.entries) {
+                out.print(entry.displayName);
+                out.print('\t');
+                out.print(entry.subtitle);
+                out.print('\t');
+                out.print(entry.category);
+                out.print('\t');
+                out.println(h.shard.key);
+            }
+        }
+    }
+
+    // Same instance while the CSV is unchanged, so indexes are built once per
+    // load. With a catalog that is the active shard's, which the catalog has
+    // already indexed.
+    private RosterQuery current() {
+        if (catalog != null) {
+            return catalog.query(catalog.active());
+        }
+        List<RosterEntry> roster = repository.getRoster();
+        if (roster != loaded) {
+            loaded = roster;
+            query = new RosterQuery(roster);
+        }
+        return query;
+    }
+
+    private void print(RosterQuery q, int[] ids) {
+        out.print("# ");
+        out.println(ids.length);
+        if (countOnly) {
+            return;
+        }
+        for (int id : ids) {
+            RosterEntry entry = q.entry(id);
+            out.print(entry.displayName);
+            out.print('\t');
+            out.print(entry.subtitle);
+            out.print('\t');
+            out.println(entry.category);
+        }
+    }
+
+    private void printSections(RosterQuery q) {
+        out.print("# ");
+        out.println(q.groups().size());
+        if (countOnly) {
+            return;
+        }
+        String lastSection = "";
+        for (RosterQuery.Group group : q.groups()) {
+            if (!group.section.equals(lastSection)) {
+                out.println(group.section.toUpperCase());
+                lastSection = group.section;
+            }
+            out.print(group.subsection != null ? "  " + group.subsection : "  (all)");
+            out.print('\t');
+            out.println(group.count);
+        }
+    }
+
+    private static String positionNames() {
+        StringBuilder sb = new StringBuilder();
+        for (Position position : Position.values()) {
+            if (sb.length() > 0) {
+                sb.append('|');
+            }
+            sb.append(position.name());
+        }
+        return sb.toString();
+    }
+}
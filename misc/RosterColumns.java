@@ -0,0 +1,218 @@
+package misc;
+
+import classes.Categories;
+import classes.Position;
+import classes.RosterEntry;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+public class RosterColumns {
+    // Column-oriented store for very large rosters. Instead of one RosterEntry
+    // plus four or five Strings per row, each field is a single array:
+    // category codes (see Categories), position ordinals, and the text fields
+    // as UTF-8 bytes in one shared byte[] per column with an end offset per row.
+    // A row's id is its row number, the same id RosterEntry carries.
+    //
+    // Rows are only appended, so a store filled by one thread and then
+    // published can be read from any number of threads. entry(row) builds a
+    // RosterEntry on demand for code that wants the object form.
+    //
+    // Each text column holds up to 2GB of UTF-8.
+
+    private static final byte NO_POSITION = -1;
+    private static final Position[] POSITIONS = Position.values();
+
+    private int size;
+    private int[] categories;
+    private byte[] positions;
+    private final TextColumn names;
+    private final TextColumn displayNames;
+    private final TextColumn subtitles;
+    private final TextColumn details;
+
+    public RosterColumns() {
+        this(1024);
+    }
+
+    public RosterColumns(int expectedRows) {
+        int capacity = Math.max(expectedRows, 16);
+        categories = new int[capacity];
+        positions = new byte[capacity];
+        names = new TextColumn(capacity, 24);
+        displayNames = new TextColumn(capacity, 16);
+        subtitles = new TextColumn(capacity, 4);
+        details = new TextColumn(capacity, 160);
+    }
+
+    public static RosterColumns of(List<RosterEntry> roster) {
+        RosterColumns columns = new RosterColumns(roster.size());
+        for (RosterEntry entry : roster) {
+            columns.add(entry);
+        }
+        return columns.trim();
+    }
+
+    // Stream a CSV straight into columns, so only one parsed entry is alive at a time
+    public static RosterColumns load(Path csv) throws IOException {
+        RosterColumns columns = new RosterColumns();
+        MappedCsvReader.stream(csv, columns::add);
+        return columns.trim();
+    }
+
+    // Appends the entry as the next row; its own id is not kept
+    public void add(RosterEntry entry) {
+        if (size == categories.length) {
+            int capacity = Math.max(size * 2, 16);
+            categories = Arrays.copyOf(categories, capacity);
+            positions = Arrays.copyOf(positions, capacity);
+        }
+        categories[size] = entry.categoryCode;
+        positions[size] = entry.position == null ? NO_POSITION : (byte) entry.position.ordinal();
+        names.add(entry.name);
+        displayNames.add(entry.displayName);
+        subtitles.add(entry.subtitle);
+        details.add(entry.details);
+        size++;
+    }
+
+    // Drops spare capacity once loading is done
+    public RosterColumns trim() {
+        categories = Arrays.copyOf(categories, size);
+        positions = Arrays.copyOf(positions, size);
+        names.trim(size);
+        displayNames.trim(size);
+        subtitles.trim(size);
+        details.trim(size);
+        return this;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int categoryCode(int row) {
+        return categories[check(row)];
+    }
+
+    public String category(int row) {
+        return Categories.name(categoryCode(row));
+    }
+
+    // Null for entries outside every position group
+    public Position position(int row) {
+        byte ordinal = positions[check(row)];
+        return ordinal == NO_POSITION ? null : POSITIONS[ordinal];
+    }
+
+    public String name(int row) {
+        return names.get(check(row));
+    }
+
+    public String displayName(int row) {
+        return displayNames.get(check(row));
+    }
+
+    public String subtitle(int row) {
+        return subtitles.get(check(row));
+    }
+
+    public String details(int row) {
+        return details.get(check(row));
+    }
+
+    public RosterEntry entry(int row) {
+        return new RosterEntry(row, category(row), name(row), details(row),
+            displayName(row), subtitle(row), null);
+    }
+
+    // Sorted rows in the position group, scanning only the position column
+    public int[] rows(Position position) {
+        byte ordinal = (byte) position.ordinal();
+        SearchIndex.IntList rows = new SearchIndex.IntList();
+        for (int row = 0; row < size; row++) {
+            if (positions[row] == ordinal) {
+                rows.add(row);
+            }
+        }
+        return rows.toArray();
+    }
+
+    // Sorted rows with the category code, scanning only the category column
+    public int[] rowsInCategory(int categoryCode) {
+        SearchIndex.IntList rows = new SearchIndex.IntList();
+        for (int row = 0; row < size; row++) {
+            if (categories[row] == categoryCode) {
+                rows.add(row);
+            }
+        }
+        return rows.toArray();
+    }
+
+    // Read-only list view; every get builds a fresh RosterEntry
+    public List<RosterEntry> asList() {
+        return new EntryList();
+    }
+
+    private int check(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("row " + row + " of " + size);
+        }
+        return row;
+    }
+
+    private class EntryList extends AbstractList<RosterEntry> implements RandomAccess {
+        @Override
+        public RosterEntry get(int index) {
+            return entry(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    // Strings of one field back to back as UTF-8; row i is bytes [ends[i - 1], ends[i])
+    private static class TextColumn {
+        private byte[] data;
+        private int[] ends;
+        private int rows;
+
+        TextColumn(int capacity, int bytesPerRow) {
+            data = new byte[(int) Math.min(Integer.MAX_VALUE - 8, (long) capacity * bytesPerRow)];
+            ends = new int[capacity];
+        }
+
+        void add(String s) {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            int start = rows == 0 ? 0 : ends[rows - 1];
+            long needed = (long) start + bytes.length;
+            if (needed > Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("Roster column exceeds 2GB");
+            }
+            if (needed > data.length) {
+                data = Arrays.copyOf(data, (int) Math.min(Integer.MAX_VALUE - 8, Math.max(needed, data.length * 2L)));
+            }
+            if (rows == ends.length) {
+                ends = Arrays.copyOf(ends, Math.max(rows * 2, 16));
+            }
+            System.arraycopy(bytes, 0, data, start, bytes.length);
+            ends[rows++] = (int) needed;
+        }
+
+        String get(int row) {
+            int start = row == 0 ? 0 : ends[row - 1];
+            return new String(data, start, ends[row] - start, StandardCharsets.UTF_8);
+        }
+
+        void trim(int size) {
+            ends = Arrays.copyOf(ends, size);
+            data = Arrays.copyOf(data, size == 0 ? 0 : ends[size - 1]);
+        }
+    }
+}
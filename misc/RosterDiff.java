@@ -0,0 +1,69 @@
+package misc;
+
+import classes.RosterEntry;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class RosterDiff {
+    // Entry-level difference between two loads of the roster, keyed by
+    // category + name. Repeated keys within one file are told apart by
+    // their occurrence number, so duplicates still diff one-to-one.
+
+    public final List<RosterEntry> added = new ArrayList<>();
+    public final List<RosterEntry> removed = new ArrayList<>();
+    public final List<RosterEntry> updated = new ArrayList<>(); // new versions of changed entries
+
+    public static RosterDiff compute(List<RosterEntry> oldRoster, List<RosterEntry> newRoster) {
+        RosterDiff diff = new RosterDiff();
+        Map<String, RosterEntry> previous = index(oldRoster);
+        Map<String, RosterEntry> current = index(newRoster);
+
+        for (Map.Entry<String, RosterEntry> e : current.entrySet()) {
+            RosterEntry before = previous.get(e.getKey());
+            if (before == null) {
+                diff.added.add(e.getValue());
+            } else if (!before.details.equals(e.getValue().details)) {
+                diff.updated.add(e.getValue());
+            }
+        }
+        for (Map.Entry<String, RosterEntry> e : previous.entrySet()) {
+            if (!current.containsKey(e.getKey())) {
+                diff.removed.add(e.getValue());
+            }
+        }
+        return diff;
+    }
+
+    // Key of every entry, in roster order. Relative order within a category is
+    // all that matters, so keys of the grouped UI order match the file order.
+    public static List<String> keys(List<RosterEntry> roster) {
+        List<String> keys = new ArrayList<>(roster.size());
+        Map<String, Integer> seen = new HashMap<>();
+        for (RosterEntry entry : roster) {
+            String base = entry.category + "\u0000" + entry.name;
+            int n = seen.merge(base, 1, Integer::sum);
+            keys.add(n == 1 ? base : base + "\u0000" + n);
+        }
+        return keys;
+    }
+
+    public boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty() && updated.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return added.size() + " added, " + removed.size() + " removed, " + updated.size() + " updated";
+    }
+
+    private static Map<String, RosterEntry> index(List<RosterEntry> roster) {
+        List<String> keys = keys(roster);
+        Map<String, RosterEntry> map = new HashMap<>(roster.size() * 2);
+        for (int i = 0; i < roster.size(); i++) {
+            map.put(keys.get(i), roster.get(i));
+        }
+        return map;
+    }
+}
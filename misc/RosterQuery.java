@@ -0,0 +1,474 @@
+package misc;
+
+import classes.Position;
+import classes.RosterEntry;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+public class RosterQuery {
+    // Headless view of one loaded roster: entries in display order (grouped by
+    // category, categories in order of first appearance) with the search,
+    // position and category indexes built over them. An entry's id is its
+    // place in that order, which is also its card id in the UI.
+    //
+    // Immutable once built apart from a small search cache, so any number of
+    // threads can query it. Returned id arrays are shared and must not be modified.
+
+    private static final int[] EMPTY = new int[0];
+    private static final int CACHED_SEARCHES = 1024;
+    private static final String QUERY_KEY = "\u0000";
+
+    private final List<RosterEntry> entries;
+    private final List<Group> groups;
+    private final SearchIndex searchIndex;
+    private final PositionIndex positionIndex;
+    private final Map<String, int[]> categoryIds;
+    private final RosterStats stats;
+    private final int[] allIds;
+    private volatile FuzzyIndex fuzzyIndex; // built on the first ranked search
+    private volatile FieldIndex fieldIndex; // built on the first boolean query
+
+    // Batch jobs repeat queries a lot; broad ones are worth remembering
+    private final Map<String, int[]> recentSearches = new LinkedHashMap<String, int[]>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, int[]> eldest) {
+            return size() > CACHED_SEARCHES;
+        }
+    };
+
+    public RosterQuery(List<RosterEntry> roster) {
+        // Group entries by category
+        Map<String, List<RosterEntry>> categorized = new LinkedHashMap<>();
+        for (RosterEntry entry : roster) {
+            categorized.computeIfAbsent(entry.category, k -> new ArrayList<>()).add(entry);
+        }
+
+        List<RosterEntry> ordered = new ArrayList<>(roster.size());
+        List<Group> grouped = new ArrayList<>(categorized.size());
+        for (Map.Entry<String, List<RosterEntry>> e : categorized.entrySet()) {
+            Group group = new Group(e.getKey(), ordered.size(), e.getValue().size());
+            grouped.add(group);
+            ordered.addAll(e.getValue());
+        }
+        entries = Collections.unmodifiableList(ordered);
+        groups = Collections.unmodifiableList(grouped);
+
+        List<String> texts = new ArrayList<>(entries.size());
+        for (RosterEntry entry : entries) {
+            texts.add(entry.getSearchText());
+        }
+        searchIndex = new SearchIndex(texts);
+        positionIndex = new PositionIndex(entries);
+        categoryIds = indexCategories(groups);
+        stats = RosterStats.of(entries);
+
+        allIds = new int[entries.size()];
+        for (int id = 0; id < allIds.length; id++) {
+            allIds[id] = id;
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public RosterEntry entry(int id) {
+        return entries.get(id);
+    }
+
+    // Every entry in display order
+    public List<RosterEntry> entries() {
+        return entries;
+    }
+
+    public List<Group> groups() {
+        return groups;
+    }
+
+    public int[] all() {
+        return allIds;
+    }
+
+    // Numeric stats pulled out of the details, by the same ids
+    public RosterStats stats() {
+        return stats;
+    }
+
+    // Sorted ids of entries whose text contains the query; an empty query
+    // matches everything. A stat comparison like "rushing yards > 5000" is
+    // answered from the stat columns instead, and a BooleanQuery such as
+    // position:QB AND "MVP" with set operations over the field postings.
+    public int[] search(String query) {
+        BooleanQuery parsed = BooleanQuery.parse(query);
+        if (parsed != null) {
+            return search(parsed);
+        }
+        String key = SearchIndex.normalize(query).trim();
+        synchronized (recentSearches) {
+            int[] cached = recentSearches.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        int[] ids = stats.match(key);
+        if (ids == null) {
+            ids = searchIndex.search(key);
+        }
+        synchronized (recentSearches) {
+            recentSearches.put(key, ids);
+        }
+        return ids;
+    }
+
+    // Sorted ids of entries matching a parsed query
+    public int[] search(BooleanQuery query) {
+        String key = QUERY_KEY + query; // canonical form, and never a lowercased plain search
+        synchronized (recentSearches) {
+            int[] cached = recentSearches.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        int[] ids = matching(query).toArray();
+        synchronized (recentSearches) {
+            recentSearches.put(key, ids);
+        }
+        return ids;
+    }
+
+    // Entries matching a parsed query as a bitmap, evaluated afresh on every
+    // call. The first call builds the field postings.
+    public IdBitmap matching(BooleanQuery query) {
+        return evaluate(query.root(), fieldIndex(), null);
+    }
+
+    // Ids of the k best typo-tolerant matches, best first (see FuzzyIndex).
+    // The first call builds the word index, so it costs about as much as a load.
+    public int[] ranked(String query, int k) {
+        return fuzzyIndex().top(query, k);
+    }
+
+    // A query parsed once for highlighting every matched card, or null when
+    // there is nothing to mark
+    public static HighlightTerms highlightTerms(String query) {
+        String q = SearchIndex.normalize(query).trim();
+        if (q.isEmpty()) {
+            return null;
+        }
+        BooleanQuery parsed = BooleanQuery.parse(query);
+        if (parsed != null) {
+            return new HighlightTerms(parsed.highlightTerms().toArray(new String[0]), null);
+        }
+        return new HighlightTerms(new String[] {q}, q.indexOf(' ') > 0 ? q.split("\\s+") : null);
+    }
+
+    // Where the query shows up in an entry's name, subtitle and details, for
+    // highlighting. Uses the whole query if it occurs, otherwise each of its
+    // words that does (ranked results match word by word). Each field is
+    // searched on its own, so offsets are relative to that field.
+    public Highlights highlights(int id, HighlightTerms terms) {
+        RosterEntry entry = entries.get(id);
+        Highlights highlights = highlights(entry, terms.needles);
+        if (highlights.isEmpty() && terms.words != null) {
+            highlights = highlights(entry, terms.words);
+        }
+        return highlights;
+    }
+
+    private static Highlights highlights(RosterEntry entry, String[] needles) {
+        int[] name = spans(entry.displayName, needles);
+        int[] subtitle = spans(entry.subtitle, needles);
+        int[] details = spans(entry.details, needles);
+        if (name.length == 0 && subtitle.length == 0 && details.length == 0) {
+            return Highlights.NONE;
+        }
+        return new Highlights(name, subtitle, details);
+    }
+
+    public int[] position(Position position) {
+        return positionIndex.ids(position);
+    }
+
+    // Sorted ids of every entry not in the position
+    public int[] otherPositions(Position position) {
+        return positionIndex.others(position);
+    }
+
+    // Sorted ids in a category, matched case-insensitively against the full
+    // category ("Player Roster - Quarterbacks"), its section ("Player Roster")
+    // or its subsection ("Quarterbacks")
+    public int[] category(String name) {
+        int[] ids = categoryIds.get(name.trim().toLowerCase(Locale.ROOT));
+        return ids == null ? EMPTY : ids;
+    }
+
+    // Walks the roster in display order: a section header whenever the major
+    // section changes, a subsection header per subcategory, then its entries
+    public void layout(Visitor visitor) {
+        String lastSection = "";
+        for (Group group : groups) {
+            if (!group.section.equals(lastSection)) {
+                visitor.section(group.section.toUpperCase());
+                lastSection = group.section;
+            }
+            if (group.subsection != null) {
+                visitor.subsection(group.subsection);
+            }
+            for (int id = group.first; id < group.first + group.count; id++) {
+                visitor.card(entries.get(id), group.isPlayer);
+            }
+        }
+    }
+
+    // AND intersects its positive children smallest first, then subtracts the
+    // NOT ones, and stops as soon as nothing is left. Field terms go first as
+    // they are plain lookups; text terms then only need to check the entries
+    // still in the running (within) when those are fewer than the term's
+    // postings. A node evaluated within a set may return more than that, but
+    // never differs from the full answer inside it. A NOT on its own is taken
+    // away from every entry.
+    private IdBitmap evaluate(BooleanQuery.Node node, FieldIndex fields, IdBitmap within) {
+        if (node instanceof BooleanQuery.Term) {
+            return term((BooleanQuery.Term) node, fields, within);
+        }
+        if (node instanceof BooleanQuery.Not) {
+            IdBitmap scope = within == null ? fields.all() : within;
+            return scope.andNot(evaluate(((BooleanQuery.Not) node).child, fields, scope));
+        }
+        if (node instanceof BooleanQuery.Or) {
+            IdBitmap ids = IdBitmap.EMPTY;
+            for (BooleanQuery.Node child : ((BooleanQuery.Or) node).children) {
+                ids = ids.or(evaluate(child, fields, within));
+            }
+            return ids;
+        }
+
+        List<BooleanQuery.Node> text = new ArrayList<>();
+        List<BooleanQuery.Node> excluded = new ArrayList<>();
+        List<IdBitmap> included = new ArrayList<>();
+        for (BooleanQuery.Node child : ((BooleanQuery.And) node).children) {
+            if (child instanceof BooleanQuery.Not) {
+                excluded.add(((BooleanQuery.Not) child).child);
+            } else if (isText(child)) {
+                text.add(child);
+            } else {
+                IdBitmap ids = evaluate(child, fields, within);
+                if (ids.isEmpty()) {
+                    return ids;
+                }
+                included.add(ids);
+            }
+        }
+        included.sort((a, b) -> Integer.compare(a.size(), b.size()));
+        IdBitmap ids = included.isEmpty() ? (within == null ? fields.all() : within) : included.get(0);
+        for (int i = 1; i < included.size() && !ids.isEmpty(); i++) {
+            ids = ids.and(included.get(i));
+        }
+        for (int i = 0; i < text.size() && !ids.isEmpty(); i++) {
+            ids = ids.and(evaluate(text.get(i), fields, ids));
+        }
+        for (int i = 0; i < excluded.size() && !ids.isEmpty(); i++) {
+            ids = ids.andNot(evaluate(excluded.get(i), fields, ids));
+        }
+        return ids;
+    }
+
+    // Whether a node needs the text index, so is worth narrowing first
+    private static boolean isText(BooleanQuery.Node node) {
+        if (node instanceof BooleanQuery.Term) {
+            return ((BooleanQuery.Term) node).field == null;
+        }
+        if (node instanceof BooleanQuery.Not) {
+            return isText(((BooleanQuery.Not) node).child);
+        }
+        for (BooleanQuery.Node child : ((BooleanQuery.Group) node).children) {
+            if (isText(child)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private IdBitmap term(BooleanQuery.Term term, FieldIndex fields, IdBitmap within) {
+        if (term.field == null) {
+            if (within != null && within.size() < searchIndex.estimate(term.value)) {
+                int[] candidates = within.toArray();
+                int n = 0;
+                for (int id : candidates) {
+                    if (searchIndex.document(id).contains(term.value)) {
+                        candidates[n++] = id;
+                    }
+                }
+                return IdBitmap.of(candidates, n);
+            }
+            return IdBitmap.of(searchIndex.search(term.value));
+        }
+        switch (term.field) {
+            case "position":
+                return fields.position(term.value);
+            case "category":
+                return fields.category(term.value);
+            case "name":
+                return fields.name(term.value);
+            case "role":
+                return fields.role(term.value);
+            default:
+                return IdBitmap.of(stats.select(term.value));
+        }
+    }
+
+    private FieldIndex fieldIndex() {
+        FieldIndex index = fieldIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = fieldIndex;
+                if (index == null) {
+                    index = new FieldIndex(entries);
+                    fieldIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    private FuzzyIndex fuzzyIndex() {
+        FuzzyIndex index = fuzzyIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = fuzzyIndex;
+                if (index == null) {
+                    List<String> names = new ArrayList<>(entries.size());
+                    List<String> subtitles = new ArrayList<>(entries.size());
+                    List<String> details = new ArrayList<>(entries.size());
+                    for (RosterEntry entry : entries) {
+                        names.add(entry.displayName);
+                        subtitles.add(entry.subtitle);
+                        details.add(entry.details);
+                    }
+                    index = new FuzzyIndex(names, subtitles, details);
+                    fuzzyIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    // Start / end pairs of every occurrence of the needles in the text, merged
+    // where they overlap. Compared case-insensitively char by char on the
+    // original text instead of searching a lowercased copy, whose offsets are
+    // off wherever lowercasing changes the length ("İ" becomes two chars).
+    private static int[] spans(String text, String[] needles) {
+        List<int[]> found = new ArrayList<>();
+        for (String needle : needles) {
+            int length = needle.length();
+            if (length == 0) {
+                continue;
+            }
+            for (int i = 0; i + length <= text.length(); i++) {
+                if (text.regionMatches(true, i, needle, 0, length)) {
+                    found.add(new int[] {i, i + length});
+                    i += length - 1;
+                }
+            }
+        }
+        found.sort((a, b) -> Integer.compare(a[0], b[0]));
+        SearchIndex.IntList merged = new SearchIndex.IntList();
+        for (int[] span : found) {
+            if (merged.size > 0 && span[0] <= merged.data[merged.size - 1]) {
+                merged.data[merged.size - 1] = Math.max(merged.data[merged.size - 1], span[1]);
+            } else {
+                merged.add(span[0]);
+                merged.add(span[1]);
+            }
+        }
+        return merged.size == 0 ? EMPTY : merged.toArray();
+    }
+
+    private static Map<String, int[]> indexCategories(List<Group> groups) {
+        Map<String, SearchIndex.IntList> building = new HashMap<>();
+        for (Group group : groups) {
+            Set<String> names = new LinkedHashSet<>(); // a category without " - " is its own section
+            names.add(group.category.toLowerCase(Locale.ROOT));
+            names.add(group.section.toLowerCase(Locale.ROOT));
+            if (group.subsection != null) {
+                names.add(group.subsection.toLowerCase(Locale.ROOT));
+            }
+            for (String name : names) {
+                SearchIndex.IntList ids = building.computeIfAbsent(name, k -> new SearchIndex.IntList());
+                for (int id = group.first; id < group.first + group.count; id++) {
+                    ids.add(id);
+                }
+            }
+        }
+
+        // Groups are visited in id order, so every list is already sorted
+        Map<String, int[]> index = new HashMap<>(building.size() * 2);
+        for (Map.Entry<String, SearchIndex.IntList> e : building.entrySet()) {
+            index.put(e.getKey(), e.getValue().toArray());
+        }
+        return index;
+    }
+
+    // One category's run of entries: ids first .. first + count - 1
+    public static class Group {
+        public final String category;
+        public final String section;    // part before " - ", or the whole category
+        public final String subsection; // part after " - ", null if there is none
+        public final boolean isPlayer;
+        public final int first;
+        public final int count;
+
+        Group(String category, int first, int count) {
+            this.category = category;
+            int dash = category.indexOf(" - ");
+            this.section = dash >= 0 ? category.substring(0, dash) : category;
+            this.subsection = dash >= 0 ? category.substring(dash + 3) : null;
+            this.isPlayer = category.toLowerCase().contains("player");
+            this.first = first;
+            this.count = count;
+        }
+    }
+
+    // Match offsets per field as start / end pairs, for ExpandableCard.setHighlights
+    public static class HighlightTerms {
+        final String[] needles;
+        final String[] words; // single words of a plain multi-word query, else null
+
+        HighlightTerms(String[] needles, String[] words) {
+            this.needles = needles;
+            this.words = words;
+        }
+    }
+
+    public static class Highlights {
+        public static final Highlights NONE = new Highlights(EMPTY, EMPTY, EMPTY);
+
+        public final int[] name;
+        public final int[] subtitle;
+        public final int[] details;
+
+        Highlights(int[] name, int[] subtitle, int[] details) {
+            this.name = name;
+            this.subtitle = subtitle;
+            this.details = details;
+        }
+
+        public boolean isEmpty() {
+            return name.length == 0 && subtitle.length == 0 && details.length == 0;
+        }
+    }
+
+    // Receives the grouped roster in display order
+    public interface Visitor {
+        void section(String title);
+        void subsection(String title);
+        void card(RosterEntry entry, boolean isPlayer);
+    }
+}
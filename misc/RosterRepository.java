@@ -0,0 +1,93 @@
+package misc;
+
+import classes.RosterEntry;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collections;
+import java.util.List;
+
+public class RosterRepository {
+    // Loads the roster CSV once and hands out the cached entries until the
+    // file's modification time or size changes. Loads go through the binary
+    // snapshot unless -Dravens.snapshot=false.
+
+    private static final boolean USE_SNAPSHOT = !"false".equals(System.getProperty("ravens.snapshot"));
+
+    private final Path path;
+    private List<RosterEntry> roster;
+    private long loadedModified = -1;
+    private long loadedSize = -1;
+    private long version;
+
+    public RosterRepository(Path path) {
+        this.path = path;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    // Cached roster, reloading first if the file changed since the last load
+    public synchronized List<RosterEntry> getRoster() {
+        if (roster == null || isStale()) {
+            reload();
+        }
+        return roster;
+    }
+
+    // Bumped every time the roster is (re)loaded from disk
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    // Identifies the file contents behind the cached roster (modification time and
+    // size), so it stays the same across restarts as long as the CSV does
+    public synchronized String getFingerprint() {
+        return Long.toHexString(loadedModified) + "-" + Long.toHexString(loadedSize);
+    }
+
+    // Drops the cached roster; the next getRoster reads it again
+    public synchronized void unload() {
+        roster = null;
+        loadedModified = -1;
+        loadedSize = -1;
+    }
+
+    public synchronized boolean isStale() {
+        if (roster == null) {
+            return true;
+        }
+        long[] stamp = stamp();
+        return stamp[0] != loadedModified || stamp[1] != loadedSize;
+    }
+
+    private void reload() {
+        // Stamp before reading so a write during the load shows up as stale next time
+        long[] stamp = stamp();
+        PerfEvents.RosterLoad event = new PerfEvents.RosterLoad();
+        event.begin();
+        List<RosterEntry> loaded = USE_SNAPSHOT
+            ? RosterSnapshot.loadOrRebuild(path)
+            : CsvParser.loadRoster(path.toString());
+        event.path = path.toString();
+        event.entries = loaded.size();
+        event.snapshot = USE_SNAPSHOT;
+        event.commit();
+        roster = Collections.unmodifiableList(loaded);
+        loadedModified = stamp[0];
+        loadedSize = stamp[1];
+        version++;
+    }
+
+    // {modified millis, size}, or {-1, -1} when the file is missing
+    private long[] stamp() {
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+            return new long[] {attrs.lastModifiedTime().toMillis(), attrs.size()};
+        } catch (IOException e) {
+            return new long[] {-1, -1};
+        }
+    }
+}
@@ -0,0 +1,399 @@
+package misc;
+
+import classes.Position;
+import classes.RosterEntry;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+public class RosterServer {
+    // Read-only JSON view of the roster over HTTP, bound to localhost only:
+    //
+    //   java -cp out misc.RosterServer [--port 8080] [roster.csv]
+    //   java -cp out App --serve [--port 8080] [roster.csv]
+    //
+    //   GET /search?q=<text>[&limit=n]        entries whose text contains <text>
+    //   GET /rank?q=<text>[&limit=n]          best typo-tolerant matches, best first (default 50)
+    //   GET /position?p=<QB|...>[&limit=n]    entries in a position group (or /position/QB)
+    //   GET /category?name=<name>[&limit=n]   entries in a category, section or subsection
+    //   GET /sections                         the section / subsection layout with counts
+    //   GET /metrics                          request count and latency percentiles
+    //
+    // Roster answers carry an ETag made from the CSV's modification time and
+    // size, so a client sending it back in If-None-Match gets a 304 until the
+    // file changes. The CSV is reloaded on the first request after it changes.
+    // Worker threads come from -Dravens.server.threads (default 4).
+
+    private static final int DEFAULT_PORT = 8080;
+
+    private final RosterRepository repository;
+    private final HttpServer server;
+    private final ExecutorService workers;
+    private final Latency latency = new Latency(4096);
+
+    private Snapshot current; // guarded by repository
+
+    public RosterServer(RosterRepository repository, int port) throws IOException {
+        this.repository = repository;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(Integer.getInteger("ravens.server.threads", 4), r -> {
+            Thread t = new Thread(r, "roster-http-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        server.setExecutor(workers);
+        server.createContext("/", this::handle);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = DEFAULT_PORT;
+        Path csv = Paths.get("ravens_roster.csv");
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--port") && i + 1 < args.length) {
+                port = Integer.parseInt(args[++i]);
+            } else if (!args[i].equals("--serve")) {
+                csv = Paths.get(args[i]);
+            }
+        }
+
+        RosterRepository repository = new RosterRepository(csv.toAbsolutePath());
+        repository.getRoster(); // load up front so the first request doesn't pay for it
+        RosterServer rosterServer = new RosterServer(repository, port);
+        rosterServer.start();
+        System.out.println("Serving " + csv + " on http://localhost:" + rosterServer.getPort() + "/");
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        workers.shutdownNow();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public Latency getLatency() {
+        return latency;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        long started = System.nanoTime();
+        try {
+            if (!"GET".equals(exchange.getRequestMethod()) && !"HEAD".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+                send(exchange, 405, error("method not allowed"), null);
+                return;
+            }
+            respond(exchange);
+        } catch (RuntimeException e) {
+            System.err.println("Error answering " + exchange.getRequestURI() + ": " + e);
+            send(exchange, 500, error("internal error"), null);
+        } finally {
+            exchange.close();
+            latency.record(System.nanoTime() - started);
+        }
+    }
+
+    private void respond(HttpExchange exchange) throws IOException {
+        URI uri = exchange.getRequestURI();
+        String path = uri.getPath();
+        Map<String, String> params = parseQuery(uri.getRawQuery());
+
+        if (path.equals("/metrics")) {
+            send(exchange, 200, latency.toJson(), null);
+            return;
+        }
+
+        Snapshot snapshot = current();
+        String etag = "\"" + snapshot.fingerprint + "\"";
+        RosterQuery q = snapshot.query;
+        int limit;
+        try {
+            limit = params.containsKey("limit") ? Integer.parseInt(params.get("limit")) : Integer.MAX_VALUE;
+        } catch (NumberFormatException e) {
+            send(exchange, 400, error("limit must be a number"), null);
+            return;
+        }
+
+        Supplier<String> body;
+        if (path.equals("/search")) {
+            body = () -> results(snapshot, q.search(params.getOrDefault("q", "")), limit);
+        } else if (path.equals("/rank")) {
+            int k = params.containsKey("limit") ? limit : 50;
+            body = () -> results(snapshot, q.ranked(params.getOrDefault("q", ""), k), k);
+        } else if (path.equals("/position") || path.startsWith("/position/")) {
+            String name = path.startsWith("/position/") ? path.substring("/position/".length()) : params.getOrDefault("p", "");
+            Position position = Position.parse(name);
+            if (position == null) {
+                send(exchange, 400, error("unknown position '" + name + "', expected one of "
+                    + Arrays.toString(Position.values())), null);
+                return;
+            }
+            body = () -> results(snapshot, q.position(position), limit);
+        } else if (path.equals("/category")) {
+            body = () -> results(snapshot, q.category(params.getOrDefault("name", "")), limit);
+        } else if (path.equals("/sections")) {
+            body = () -> sections(snapshot);
+        } else {
+            send(exchange, 404, error("unknown path " + path), null);
+            return;
+        }
+
+        // Only a roster result can be unchanged; errors above always go out
+        // in full. The result itself is only worked out when it's needed.
+        if (notModified(exchange.getRequestHeaders().getFirst("If-None-Match"), etag)) {
+            exchange.getResponseHeaders().set("ETag", etag);
+            exchange.sendResponseHeaders(304, -1);
+            return;
+        }
+        send(exchange, 200, body.get(), etag);
+    }
+
+    // Query engine for the roster now on disk, rebuilt only when the CSV changes
+    private Snapshot current() {
+        synchronized (repository) {
+            List<RosterEntry> roster = repository.getRoster();
+            if (current == null || current.roster != roster) {
+                current = new Snapshot(roster, new RosterQuery(roster), repository.getFingerprint());
+            }
+            return current;
+        }
+    }
+
+    // If-None-Match may list several tags, weak ones included, or be "*"
+    private static boolean notModified(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String t = tag.trim();
+            if (t.startsWith("W/")) {
+                t = t.substring(2);
+            }
+            if (t.equals("*") || t.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void send(HttpExchange exchange, int status, String json, String etag) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        if (etag != null) {
+            exchange.getResponseHeaders().set("ETag", etag);
+            exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        }
+        boolean head = "HEAD".equals(exchange.getRequestMethod());
+        exchange.sendResponseHeaders(status, head ? -1 : body.length);
+        if (!head) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    private static String results(Snapshot snapshot, int[] ids, int limit) {
+        int shown = Math.min(ids.length, Math.max(limit, 0));
+        StringBuilder sb = new StringBuilder(64 + shown * 256);
+        sb.append("{\"version\":");
+        quote(sb, snapshot.fingerprint);
+        sb.append(",\"count\":").append(ids.length).append(",\"results\":[");
+        for (int i = 0; i < shown; i++) {
+            RosterEntry entry = snapshot.query.entry(ids[i]);
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append("{\"id\":").append(ids[i]);
+            sb.append(",\"name\":");
+            quote(sb, entry.displayName);
+            sb.append(",\"subtitle\":");
+            quote(sb, entry.subtitle);
+            sb.append(",\"category\":");
+            quote(sb, entry.category);
+            sb.append(",\"position\":");
+            quote(sb, entry.position == null ? null : entry.position.name());
+            sb.append(",\"details\":");
+            quote(sb, entry.details);
+            sb.append('}');
+        }
+        return sb.append("]}").toString();
+    }
+
+    private static String sections(Snapshot snapshot) {
+        StringBuilder sb = new StringBuilder(256);
+        sb.append("{\"version\":");
+        quote(sb, snapshot.fingerprint);
+        sb.append(",\"count\":").append(snapshot.query.groups().size()).append(",\"sections\":[");
+        boolean first = true;
+        for (RosterQuery.Group group : snapshot.query.groups()) {
+            if (!first) {
+                sb.append(',');
+            }
+            first = false;
+            sb.append("{\"category\":");
+            quote(sb, group.category);
+            sb.append(",\"section\":");
+            quote(sb, group.section);
+            sb.append(",\"subsection\":");
+            quote(sb, group.subsection);
+            sb.append(",\"count\":").append(group.count).append('}');
+        }
+        return sb.append("]}").toString();
+    }
+
+    private static String error(String message) {
+        StringBuilder sb = new StringBuilder("{\"error\":");
+        quote(sb, message);
+        return sb.append('}').toString();
+    }
+
+    // Appends a JSON string literal, or null
+    static void quote(StringBuilder sb, String s) {
+        if (s == null) {
+            sb.append("null");
+            return;
+        }
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        sb.append('"');
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            params.putIfAbsent(URLDecoder.decode(key, StandardCharsets.UTF_8),
+                URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    // One loaded roster with its indexes and the fingerprint of the file it came from
+    private static class Snapshot {
+        final List<RosterEntry> roster;
+        final RosterQuery query;
+        final String fingerprint;
+
+        Snapshot(List<RosterEntry> roster, RosterQuery query, String fingerprint) {
+            this.roster = roster;
+            this.query = query;
+            this.fingerprint = fingerprint;
+        }
+    }
+
+    // Request latencies: totals since start plus percentiles over the most
+    // recent requests, kept in a fixed ring so recording never allocates
+    public static class Latency {
+        private final long[] recent;
+        private int next;
+        private long count;
+        private long total;
+        private long max;
+
+        Latency(int window) {
+            recent = new long[window];
+        }
+
+        synchronized void record(long nanos) {
+            recent[next] = nanos;
+            next = (next + 1) % recent.length;
+            count++;
+            total += nanos;
+            max = Math.max(max, nanos);
+        }
+
+        public synchronized long getCount() { return count; }
+        public synchronized long getMaxNanos() { return max; }
+
+        // p in [0, 100] over the recent window; 0 before any request
+        public long percentileNanos(double p) {
+            return rank(sortedWindow(), p);
+        }
+
+        private long[] sortedWindow() {
+            long[] sorted;
+            synchronized (this) {
+                sorted = Arrays.copyOf(recent, (int) Math.min(count, recent.length));
+            }
+            Arrays.sort(sorted);
+            return sorted;
+        }
+
+        String toJson() {
+            long[] sorted = sortedWindow();
+            long n, sum, worst;
+            synchronized (this) {
+                n = count;
+                sum = total;
+                worst = max;
+            }
+            return String.format(Locale.ROOT,
+                "{\"requests\":%d,\"window\":%d,\"avgMs\":%.3f,\"p50Ms\":%.3f,\"p90Ms\":%.3f,"
+                    + "\"p99Ms\":%.3f,\"maxMs\":%.3f}",
+                n, sorted.length, ms(sum / Math.max(n, 1)),
+                ms(rank(sorted, 50)), ms(rank(sorted, 90)), ms(rank(sorted, 99)), ms(worst));
+        }
+
+        @Override
+        public String toString() {
+            return String.format("http: %d requests | p50 %.2fms p90 %.2fms p99 %.2fms max %.2fms",
+                getCount(), ms(percentileNanos(50)), ms(percentileNanos(90)), ms(percentileNanos(99)),
+                ms(getMaxNanos()));
+        }
+
+        private static long rank(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(sorted.length - 1, rank))];
+        }
+
+        private static double ms(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package misc;
+
+import classes.RosterEntry;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class RosterSnapshot {
+    // Binary cache of a parsed roster CSV, written next to it as <csv>.snapshot.
+    //
+    // Layout (big-endian, strings are int length + UTF-8 bytes):
+    //   int magic, int version, long csvModified, long csvSize
+    //   int categoryCount, string[categoryCount]
+    //   int entryCount, then per entry:
+    //     int category, string name, string displayName, string subtitle,
+    //     string details, string searchText
+    //
+    // Categories are stored once and referenced by index. The header records the
+    // CSV's modification time and size so a changed CSV regenerates the snapshot.
+
+    private static final int MAGIC = 0x52565331; // "RVS1"
+    private static final int VERSION = 1;
+
+    public static Path snapshotPath(Path csv) {
+        return csv.resolveSibling(csv.getFileName() + ".snapshot");
+    }
+
+    // Load from the snapshot if it matches the CSV, otherwise parse the CSV and rewrite it
+    public static List<RosterEntry> loadOrRebuild(Path csv) {
+        Path snapshot = snapshotPath(csv);
+        long[] stamp = stamp(csv);
+        if (stamp == null) {
+            return CsvParser.loadRoster(csv.toString()); // missing CSV, let the parser fall back
+        }
+
+        if (Files.exists(snapshot)) {
+            try {
+                List<RosterEntry> roster = read(snapshot, stamp[0], stamp[1]);
+                if (roster != null) {
+                    return roster;
+                }
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Ignoring unreadable roster snapshot " + snapshot + ": " + e.getMessage());
+            }
+        }
+
+        // Only a roster really parsed from the CSV goes into the snapshot; the
+        // default roster stamped with the CSV's mtime would outlive the error
+        List<RosterEntry> roster;
+        try {
+            roster = CsvParser.readRoster(csv);
+        } catch (IOException e) {
+            System.err.println("Error reading CSV: " + e.getMessage());
+            return CsvParser.getDefaultRoster();
+        }
+        if (roster.isEmpty()) {
+            System.err.println("Warning: CSV file was empty, using default data");
+            return CsvParser.getDefaultRoster();
+        }
+        System.out.println("Successfully loaded " + roster.size() + " entries from " + csv);
+        try {
+            write(snapshot, roster, stamp[0], stamp[1]);
+        } catch (IOException e) {
+            System.err.println("Could not write roster snapshot " + snapshot + ": " + e.getMessage());
+        }
+        return roster;
+    }
+
+    // Returns null when the snapshot was made from a different version of the CSV
+    public static List<RosterEntry> read(Path snapshot, long csvModified, long csvSize) throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buf.getInt() != MAGIC || buf.getInt() != VERSION) {
+                return null;
+            }
+            if (buf.getLong() != csvModified || buf.getLong() != csvSize) {
+                return null;
+            }
+
+            Reader reader = new Reader(buf);
+            String[] categories = new String[buf.getInt()];
+            for (int i = 0; i < categories.length; i++) {
+                categories[i] = reader.string();
+            }
+
+            int count = buf.getInt();
+            List<RosterEntry> roster = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String category = categories[buf.getInt()];
+                String name = reader.string();
+                String displayName = reader.string();
+                String subtitle = reader.string();
+                String details = reader.string();
+                String searchText = reader.string();
+                roster.add(new RosterEntry(i, category, name, details, displayName, subtitle, searchText));
+            }
+            return roster;
+        }
+    }
+
+    public static void write(Path snapshot, List<RosterEntry> roster, long csvModified, long csvSize) throws IOException {
+        Map<String, Integer> categoryIds = new HashMap<>();
+        List<String> categories = new ArrayList<>();
+        for (RosterEntry entry : roster) {
+            categoryIds.computeIfAbsent(entry.category, k -> {
+                categories.add(k);
+                return categories.size() - 1;
+            });
+        }
+
+        // Write to a temp file and swap it in so readers never see a partial snapshot
+        Path temp = Files.createTempFile(snapshot.toAbsolutePath().getParent(), "roster", ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    Files.newOutputStream(temp), 1 << 16))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(csvModified);
+                out.writeLong(csvSize);
+
+                out.writeInt(categories.size());
+                for (String category : categories) {
+                    writeString(out, category);
+                }
+
+                out.writeInt(roster.size());
+                for (RosterEntry entry : roster) {
+                    out.writeInt(categoryIds.get(entry.category));
+                    writeString(out, entry.name);
+                    writeString(out, entry.displayName);
+                    writeString(out, entry.subtitle);
+                    writeString(out, entry.details);
+                    writeString(out, entry.getSearchText());
+                }
+            }
+            Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    // {modified millis, size}, or null if the CSV can't be read
+    private static long[] stamp(Path csv) {
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(csv, BasicFileAttributes.class);
+            return new long[] {attrs.lastModifiedTime().toMillis(), attrs.size()};
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    // Decodes length-prefixed strings through one reusable byte array
+    private static class Reader {
+        private final ByteBuffer buf;
+        private byte[] scratch = new byte[256];
+
+        Reader(ByteBuffer buf) {
+            this.buf = buf;
+        }
+
+        String string() {
+            int length = buf.getInt();
+            if (length > scratch.length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+            buf.get(scratch, 0, length);
+            return new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+    }
+}
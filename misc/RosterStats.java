@@ -0,0 +1,570 @@
+package misc;
+
+import classes.RosterEntry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class RosterStats {
+    // Numbers pulled out of the free-text details, one typed column per stat.
+    // Every "• Key: Value" bullet whose value starts with a number becomes a
+    // row in the column for Key:
+    //
+    //   • Career Rushing Yards: 9,000+    -> career rushing yards = 9000
+    //   • Yards per carry: 8.0+ (rookie)  -> yards per carry = 8.0
+    //   • NFL MVP: 2019, 2023             -> nfl mvp = 2 (a list of years counts)
+    //   • Pro Bowls: Multiple             -> skipped, not a number
+    //
+    // Columns are sparse since most entries list only a few stats: the ids
+    // that have the stat in ascending order with their values alongside, plus
+    // the same ids ordered by value. Everything is primitive arrays, so sorting
+    // and range filters never box or touch the entries again. Ids are
+    // positions in the list the stats were built from, i.e. RosterQuery ids.
+    //
+    // Immutable once built, so any number of threads can query it.
+
+    private static final int[] EMPTY = new int[0];
+
+    // A list of years, counted rather than read as a number
+    private static final Pattern YEARS = Pattern.compile("(?:19|20)\\d\\d(?:\\s*,\\s*(?:19|20)\\d\\d)*");
+
+    // "rushing yards > 5000", "career sacks >= 10", "pro bowls = 3"
+    private static final Pattern EXPRESSION = Pattern.compile(
+        "\\s*([a-z][a-z .'-]*?)\\s*(>=|<=|>|<|=)\\s*(\\d[\\d,]*(?:\\.\\d+)?)\\s*");
+
+    private final Map<String, Stat> stats; // by key, most rows first
+
+    private RosterStats(Map<String, Stat> stats) {
+        this.stats = stats;
+    }
+
+    public static RosterStats of(List<RosterEntry> entries) {
+        Columns building = new Columns();
+        for (int id = 0; id < entries.size(); id++) {
+            building.id = id;
+            forEachStat(entries.get(id).details, building);
+        }
+        List<Stat> built = new ArrayList<>(building.byLabel.size());
+        for (Map.Entry<String, Builder> e : building.byLabel.entrySet()) {
+            if (e.getKey().equals(e.getValue().key)) {
+                built.add(e.getValue().build());
+            }
+        }
+        built.sort((a, b) -> Integer.compare(b.rows(), a.rows()));
+        Map<String, Stat> stats = new LinkedHashMap<>();
+        for (Stat stat : built) {
+            stats.put(stat.key, stat);
+        }
+        return new RosterStats(Collections.unmodifiableMap(stats));
+    }
+
+    // Every stat, most common first
+    public List<Stat> all() {
+        return new ArrayList<>(stats.values());
+    }
+
+    // By its key (the lowercase label) or, failing that, the most common stat
+    // whose key contains every word given; null if none does
+    public Stat find(String name) {
+        String key = findKey(stats.keySet(), name);
+        return key == null ? null : stats.get(key);
+    }
+
+    // Sorted ids whose value lies in [min, max]
+    public int[] range(Stat stat, double min, double max) {
+        if (!(min <= max)) {
+            return EMPTY;
+        }
+        int from = lowerBound(stat.orderedValues, min);
+        int to = upperBound(stat.orderedValues, max);
+        int count = to - from;
+        if (count <= 0) {
+            return EMPTY;
+        }
+        // A narrow range is cheapest as its slice of the value order, sorted by
+        // id; a wide one as a scan of the column, which is already in id order
+        if ((long) count * (32 - Integer.numberOfLeadingZeros(count)) < stat.ids.length) {
+            int[] ids = Arrays.copyOfRange(stat.order, from, to);
+            Arrays.sort(ids);
+            return ids;
+        }
+        int[] ids = new int[count];
+        int n = 0;
+        for (int i = 0; i < stat.ids.length; i++) {
+            double v = stat.values[i];
+            if (v >= min && v <= max) {
+                ids[n++] = stat.ids[i];
+            }
+        }
+        return ids;
+    }
+
+    // Ids that have the stat, ordered by value; ties keep id order
+    public int[] sorted(Stat stat, boolean descending) {
+        if (!descending) {
+            return stat.order.clone();
+        }
+        int[] ranks = new int[stat.order.length];
+        for (int r = 0; r < ranks.length; r++) {
+            ranks[r] = r;
+        }
+        return descendingByValue(stat, ranks, ranks.length);
+    }
+
+    // The given sorted ids that have the stat, ordered by value; ties keep id order
+    public int[] sort(int[] ids, Stat stat, boolean descending) {
+        // Both id lists are sorted, so one merge walk finds the shared ids
+        int[] ranks = new int[Math.min(ids.length, stat.ids.length)];
+        int n = 0;
+        for (int i = 0, j = 0; i < ids.length && j < stat.ids.length; ) {
+            if (ids[i] < stat.ids[j]) {
+                i++;
+            } else if (ids[i] > stat.ids[j]) {
+                j++;
+            } else {
+                ranks[n++] = stat.ranks[j];
+                i++;
+                j++;
+            }
+        }
+        Arrays.sort(ranks, 0, n);
+        if (descending) {
+            return descendingByValue(stat, ranks, n);
+        }
+        int[] sorted = new int[n];
+        for (int i = 0; i < n; i++) {
+            sorted[i] = stat.order[ranks[i]];
+        }
+        return sorted;
+    }
+
+    // The given sorted ids that don't have the stat
+    public int[] without(int[] ids, Stat stat) {
+        int[] out = new int[ids.length];
+        int n = 0;
+        int j = 0;
+        for (int id : ids) {
+            while (j < stat.ids.length && stat.ids[j] < id) {
+                j++;
+            }
+            if (j == stat.ids.length || stat.ids[j] != id) {
+                out[n++] = id;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    // Sorted ids for a comparison like "rushing yards > 5000", or null when the
+    // text isn't one. A comparison on a stat nobody has matches nothing.
+    public int[] match(String expression) {
+        Matcher m = EXPRESSION.matcher(expression.toLowerCase(Locale.ROOT));
+        if (!m.matches()) {
+            return null;
+        }
+        Stat stat = find(m.group(1));
+        if (stat == null) {
+            return EMPTY;
+        }
+        double value = Double.parseDouble(m.group(3).replace(",", ""));
+        switch (m.group(2)) {
+            case ">":
+                return range(stat, Math.nextUp(value), Double.POSITIVE_INFINITY);
+            case ">=":
+                return range(stat, value, Double.POSITIVE_INFINITY);
+            case "<":
+                return range(stat, Double.NEGATIVE_INFINITY, Math.nextDown(value));
+            case "<=":
+                return range(stat, Double.NEGATIVE_INFINITY, value);
+            default:
+                return range(stat, value, value);
+        }
+    }
+
+    // Sorted ids for a comparison, or of every entry that has the named stat
+    // ("career sacks"); for stat: terms of a BooleanQuery
+    public int[] select(String text) {
+        int[] ids = match(text);
+        if (ids != null) {
+            return ids;
+        }
+        Stat stat = find(text);
+        return stat == null ? EMPTY : stat.ids.clone();
+    }
+
+    // A stat: term for testing entries one at a time, parsed once
+    static Condition condition(String text) {
+        Condition comparison = comparison(text);
+        return comparison != null ? comparison : new Condition(text, null, 0);
+    }
+
+    // A comparison like "rushing yards > 5000" for testing entries one at a
+    // time, or null when the text isn't one; the per-entry side of match()
+    static Condition comparison(String text) {
+        Matcher m = EXPRESSION.matcher(text.toLowerCase(Locale.ROOT));
+        if (!m.matches()) {
+            return null;
+        }
+        return new Condition(m.group(1), m.group(2), Double.parseDouble(m.group(3).replace(",", "")));
+    }
+
+    // Ids for the first n sorted ranks, highest value first but ids still
+    // ascending within each run of equal values
+    private static int[] descendingByValue(Stat stat, int[] ranks, int n) {
+        int[] out = new int[n];
+        int filled = 0;
+        int end = n;
+        while (end > 0) {
+            double v = stat.orderedValues[ranks[end - 1]];
+            int start = end - 1;
+            while (start > 0 && stat.orderedValues[ranks[start - 1]] == v) {
+                start--;
+            }
+            for (int i = start; i < end; i++) {
+                out[filled++] = stat.order[ranks[i]];
+            }
+            end = start;
+        }
+        return out;
+    }
+
+    // The key given or, failing that, the first key containing every word of
+    // the name; null if none does
+    private static String findKey(Iterable<String> keys, String name) {
+        String key = key(name);
+        if (key.isEmpty()) {
+            return null;
+        }
+        String[] words = key.split(" ");
+        String partial = null;
+        for (String candidate : keys) {
+            if (candidate.equals(key)) {
+                return candidate;
+            }
+            if (partial == null && containsAll(candidate, words)) {
+                partial = candidate;
+            }
+        }
+        return partial;
+    }
+
+    private static boolean containsAll(String key, String[] words) {
+        for (String word : words) {
+            if (!key.contains(word)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Bullet lines of the Stats part, up to the description. Only bullets
+    // with a colon are cut out of the text; other lines are just skipped over.
+    private static void forEachStat(String details, StatLine line) {
+        int pos = 0;
+        int length = details.length();
+        while (pos < length) {
+            int end = details.indexOf('\n', pos);
+            if (end < 0) {
+                end = length;
+            }
+            int start = pos;
+            pos = end + 1;
+            while (start < end && Character.isWhitespace(details.charAt(start))) {
+                start++;
+            }
+            if (details.startsWith("Description:", start)) {
+                return;
+            }
+            // The bullet is "•" but may have been decoded with the wrong
+            // charset, so any run of marks before the text counts as one
+            int text = start;
+            while (text < end && !Character.isLetterOrDigit(details.charAt(text))
+                    && !Character.isWhitespace(details.charAt(text))) {
+                text++;
+            }
+            if (text == start) {
+                continue;
+            }
+            int colon = details.indexOf(':', text);
+            if (colon < 0 || colon >= end) {
+                continue;
+            }
+            String label = details.substring(text, colon).strip();
+            double value = parse(details.substring(colon + 1, end).strip());
+            if (label.isEmpty() || Double.isNaN(value)) {
+                continue;
+            }
+            line.accept(label, value);
+        }
+    }
+
+    private interface StatLine {
+        void accept(String label, double value);
+    }
+
+    // The leading number of a value ("9,000+", "8.0+ (rookie season)"), the
+    // count of a list of years, or NaN
+    static double parse(String value) {
+        if (value.isEmpty() || !Character.isDigit(value.charAt(0))) {
+            return Double.NaN;
+        }
+        if (value.length() >= 9 && value.indexOf('+') < 0 && YEARS.matcher(value).matches()) {
+            return value.split(",").length;
+        }
+        // Whole part with its thousands commas, then an optional fraction
+        long whole = 0;
+        int i = 0;
+        for (; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                whole = whole * 10 + (c - '0');
+            } else if (c != ',') {
+                break;
+            }
+        }
+        if (i + 1 < value.length() && value.charAt(i) == '.' && Character.isDigit(value.charAt(i + 1))) {
+            int end = i + 1;
+            while (end < value.length() && Character.isDigit(value.charAt(end))) {
+                end++;
+            }
+            return whole + Double.parseDouble(value.substring(i, end));
+        }
+        return whole;
+    }
+
+    // Lowercase with runs of whitespace as one space; labels are usually
+    // single-spaced already, so that case skips the rebuild. strip, not trim:
+    // trim leaves Unicode spaces such as U+2003 at the ends.
+    private static String key(String label) {
+        String lower = label.toLowerCase(Locale.ROOT).strip();
+        boolean clean = true;
+        for (int i = 0; i < lower.length() && clean; i++) {
+            char c = lower.charAt(i);
+            clean = c == ' ' ? lower.charAt(i - 1) != ' ' : !Character.isWhitespace(c);
+        }
+        if (clean) {
+            return lower;
+        }
+        StringBuilder sb = new StringBuilder(lower.length());
+        for (int i = 0; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            if (!Character.isWhitespace(c)) {
+                sb.append(c);
+            } else if (sb.length() > 0 && sb.charAt(sb.length() - 1) != ' ') {
+                sb.append(' ');
+            }
+        }
+        return sb.toString();
+    }
+
+    private static int lowerBound(double[] sorted, double value) {
+        int lo = 0, hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] < value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static int upperBound(double[] sorted, double value) {
+        int lo = 0, hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] <= value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // One stat across the roster
+    public static class Stat {
+        public final String key;   // lowercase, e.g. "career rushing yards"
+        public final String label; // as first written, e.g. "Career Rushing Yards"
+        final int[] ids;           // ascending
+        final double[] values;     // values[i] belongs to ids[i]
+        final int[] ranks;         // ranks[i]: where ids[i] sits in order
+        final int[] order;         // ids by value, ties by id
+        final double[] orderedValues;
+
+        Stat(String key, String label, int[] ids, double[] values) {
+            this.key = key;
+            this.label = label;
+            this.ids = ids;
+            this.values = values;
+
+            // Sort positions by value through the rank of each distinct value,
+            // packed with the position into one long so it's a primitive sort
+            double[] distinct = values.clone();
+            Arrays.sort(distinct);
+            int d = 0;
+            for (int i = 0; i < distinct.length; i++) {
+                if (i == 0 || distinct[i] != distinct[d - 1]) {
+                    distinct[d++] = distinct[i];
+                }
+            }
+            long[] keyed = new long[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                long valueRank = Arrays.binarySearch(distinct, 0, d, values[i]);
+                keyed[i] = valueRank << 32 | i;
+            }
+            Arrays.sort(keyed);
+            order = new int[ids.length];
+            orderedValues = new double[ids.length];
+            ranks = new int[ids.length];
+            for (int r = 0; r < keyed.length; r++) {
+                int i = (int) keyed[r];
+                order[r] = ids[i];
+                orderedValues[r] = values[i];
+                ranks[i] = r;
+            }
+        }
+
+        // How many entries have the stat
+        public int rows() {
+            return ids.length;
+        }
+
+        // NaN when the entry doesn't list it
+        public double value(int id) {
+            int i = Arrays.binarySearch(ids, id);
+            return i >= 0 ? values[i] : Double.NaN;
+        }
+
+        public double min() {
+            return orderedValues.length == 0 ? Double.NaN : orderedValues[0];
+        }
+
+        public double max() {
+            return orderedValues.length == 0 ? Double.NaN : orderedValues[orderedValues.length - 1];
+        }
+    }
+
+    // select(text) for a single entry, read straight off its bullets with no
+    // columns built: the answer select gives for stats built from that entry
+    // alone, so the exact key wins, else the first key holding every word
+    static final class Condition {
+        private final String key;
+        private final String[] words;
+        private final String op; // null: the entry only has to list the stat
+        private final double bound;
+
+        Condition(String name, String op, double bound) {
+            this.key = key(name);
+            this.words = key.split(" ");
+            this.op = op;
+            this.bound = bound;
+        }
+
+        boolean test(String details) {
+            if (key.isEmpty()) {
+                return false;
+            }
+            Scan scan = new Scan();
+            forEachStat(details, scan);
+            if (!scan.exact && scan.partialKey == null) {
+                return false;
+            }
+            double value = scan.exact ? scan.exactValue : scan.partialValue;
+            if (op == null) {
+                return true;
+            }
+            switch (op) {
+                case ">":
+                    return value > bound;
+                case ">=":
+                    return value >= bound;
+                case "<":
+                    return value < bound;
+                case "<=":
+                    return value <= bound;
+                default:
+                    return value == bound;
+            }
+        }
+
+        // The later line wins when a stat repeats, as in the columns
+        private final class Scan implements StatLine {
+            boolean exact;
+            double exactValue;
+            String partialKey;
+            double partialValue;
+
+            public void accept(String label, double value) {
+                String k = key(label);
+                if (k.equals(key)) {
+                    exact = true;
+                    exactValue = value;
+                } else if (partialKey == null ? containsAll(k, words) : k.equals(partialKey)) {
+                    partialKey = k;
+                    partialValue = value;
+                }
+            }
+        }
+    }
+
+    // Every column being built, fed one entry's bullets at a time
+    private static class Columns implements StatLine {
+        final Map<String, Builder> byLabel = new LinkedHashMap<>();
+        int id; // the entry being read
+
+        public void accept(String label, double value) {
+            Builder column = byLabel.get(label);
+            if (column == null) {
+                // Keyed by the label as written too, so the usual spelling is one lookup
+                String key = key(label);
+                column = byLabel.get(key);
+                if (column == null) {
+                    column = new Builder(key, label);
+                    byLabel.put(key, column);
+                }
+                byLabel.put(label, column);
+            }
+            column.add(id, value);
+        }
+    }
+
+    // Grows one column while the entries are read in id order
+    private static class Builder {
+        final String key;
+        final String label;
+        int[] ids = new int[16];
+        double[] values = new double[16];
+        int size;
+
+        Builder(String key, String label) {
+            this.key = key;
+            this.label = label;
+        }
+
+        void add(int id, double value) {
+            // The same stat twice in one entry: the later line wins
+            if (size > 0 && ids[size - 1] == id) {
+                values[size - 1] = value;
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            ids[size] = id;
+            values[size] = value;
+            size++;
+        }
+
+        Stat build() {
+            return new Stat(key, label, Arrays.copyOf(ids, size), Arrays.copyOf(values, size));
+        }
+    }
+}
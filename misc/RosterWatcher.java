@@ -0,0 +1,120 @@
+package misc;
+
+import classes.RosterEntry;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+public class RosterWatcher {
+    // Watches the roster CSV's directory and, once writes to the file settle,
+    // reloads it through the repository and reports what changed. Callbacks
+    // run on the watcher's own thread; UI code has to hop to the EDT itself.
+
+    private final RosterRepository repository;
+    private final long settleMillis;
+    private final ChangeListener listener;
+    private final ScheduledExecutorService reloader;
+    private WatchService watchService;
+    private ScheduledFuture<?> pending;
+    private List<RosterEntry> current;
+
+    public RosterWatcher(RosterRepository repository, long settleMillis, ChangeListener listener) {
+        this.repository = repository;
+        this.settleMillis = settleMillis;
+        this.listener = listener;
+        this.reloader = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "roster-reload");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    // Changes are reported against the baseline, the roster the caller is
+    // showing. The file is checked once right away, so an edit made between
+    // the caller's load and this call is reported too instead of becoming
+    // the baseline itself.
+    public void start(List<RosterEntry> baseline) throws IOException {
+        Path file = repository.getPath().toAbsolutePath();
+        Path dir = file.getParent();
+        Path name = file.getFileName();
+
+        watchService = FileSystems.getDefault().newWatchService();
+        dir.register(watchService,
+            StandardWatchEventKinds.ENTRY_CREATE,
+            StandardWatchEventKinds.ENTRY_MODIFY);
+        // The check can hit the disk, so it happens off the caller's thread
+        reloader.execute(() -> {
+            current = baseline;
+            reload();
+        });
+
+        Thread watcher = new Thread(() -> {
+            try {
+                while (true) {
+                    WatchKey key = watchService.take();
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (name.equals(event.context())) {
+                            scheduleReload();
+                        }
+                    }
+                    if (!key.reset()) {
+                        System.err.println("Stopped watching " + dir + ": directory is no longer accessible");
+                        return;
+                    }
+                }
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                // Shutting down
+            }
+        }, "roster-watch");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    public void stop() {
+        try {
+            if (watchService != null) {
+                watchService.close();
+            }
+        } catch (IOException e) {
+            System.err.println("Error closing roster watcher: " + e.getMessage());
+        }
+        reloader.shutdownNow();
+    }
+
+    // Editors and exports often write a file in several steps; wait for it to settle
+    private synchronized void scheduleReload() {
+        if (pending != null) {
+            pending.cancel(false);
+        }
+        pending = reloader.schedule(this::reload, settleMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void reload() {
+        // Same instance back means nothing changed on disk since the last load
+        List<RosterEntry> roster = repository.getRoster();
+        if (roster == current) {
+            return;
+        }
+        List<RosterEntry> previous = current;
+        current = roster;
+
+        RosterDiff diff = RosterDiff.compute(previous, roster);
+        if (!diff.isEmpty()) {
+            listener.onRosterChanged(roster, diff);
+        }
+    }
+
+    public interface ChangeListener {
+        void onRosterChanged(List<RosterEntry> roster, RosterDiff diff);
+    }
+}
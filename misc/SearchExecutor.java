@@ -0,0 +1,168 @@
+package misc;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.swing.SwingUtilities;
+
+public class SearchExecutor {
+    // Coalesces keystrokes, runs matching off the EDT and hands only the
+    // newest result back to Swing. Every submit bumps a generation number;
+    // work belonging to an older generation is dropped wherever it is caught.
+
+    private final long debounceMillis;
+    private final Matcher matcher;
+    private final ResultListener resultListener;
+    private final ScheduledExecutorService worker;
+    private final AtomicLong generation = new AtomicLong();
+    private final Metrics metrics = new Metrics();
+
+    private ScheduledFuture<?> pending;
+    private volatile boolean logMetrics;
+
+    public SearchExecutor(long debounceMillis, Matcher matcher, ResultListener resultListener) {
+        this.debounceMillis = debounceMillis;
+        this.matcher = matcher;
+        this.resultListener = resultListener;
+        this.worker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "roster-search");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    // Called on the EDT for every keystroke
+    public synchronized void submit(String query) {
+        long gen = generation.incrementAndGet();
+        long submitted = System.nanoTime();
+
+        if (pending != null && pending.cancel(false)) {
+            metrics.recordCancelled();
+        }
+        pending = worker.schedule(() -> run(gen, query, submitted), debounceMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // Invalidate anything queued or in flight, e.g. when the underlying data is replaced
+    public synchronized void cancelPending() {
+        generation.incrementAndGet();
+        if (pending != null && pending.cancel(false)) {
+            metrics.recordCancelled();
+        }
+        pending = null;
+    }
+
+    // Print the metrics line after every applied search
+    public void setLogMetrics(boolean logMetrics) {
+        this.logMetrics = logMetrics;
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+
+    private void run(long gen, String query, long submitted) {
+        if (gen != generation.get()) {
+            metrics.recordCancelled();
+            return;
+        }
+
+        // Queue time counts from when the task fell due, so the debounce
+        // delay itself isn't reported as backlog
+        long started = System.nanoTime();
+        long queued = Math.max(0, started - submitted - TimeUnit.MILLISECONDS.toNanos(debounceMillis));
+        int[] result = matcher.match(query);
+        long matched = System.nanoTime();
+
+        if (gen != generation.get()) {
+            metrics.recordCancelled();
+            return;
+        }
+
+        long posted = System.nanoTime();
+        SwingUtilities.invokeLater(() -> {
+            if (gen != generation.get()) {
+                metrics.recordCancelled();
+                return;
+            }
+            long applyStart = System.nanoTime();
+            resultListener.onResult(query, result);
+            long applied = System.nanoTime();
+
+            metrics.record(queued, matched - started, applyStart - posted, applied - applyStart);
+            if (logMetrics) {
+                System.out.println(metrics + " (" + result.length + " results for \"" + query + "\")");
+            }
+        });
+    }
+
+    public interface Matcher {
+        int[] match(String query);
+    }
+
+    public interface ResultListener {
+        void onResult(String query, int[] ids);
+    }
+
+    // Per-keystroke latency breakdown, all values in nanoseconds: queue is
+    // the wait for the worker after the debounce, edt the wait between
+    // posting the result to Swing and applying it
+    public static class Metrics {
+        private long completed;
+        private long cancelled;
+        private long lastQueue, lastMatch, lastEdt, lastApply;
+        private long totalQueue, totalMatch, totalEdt, totalApply;
+        private long maxQueue, maxMatch, maxEdt, maxApply;
+
+        synchronized void record(long queue, long match, long edt, long apply) {
+            completed++;
+            lastQueue = queue;
+            lastMatch = match;
+            lastEdt = edt;
+            lastApply = apply;
+            totalQueue += queue;
+            totalMatch += match;
+            totalEdt += edt;
+            totalApply += apply;
+            maxQueue = Math.max(maxQueue, queue);
+            maxMatch = Math.max(maxMatch, match);
+            maxEdt = Math.max(maxEdt, edt);
+            maxApply = Math.max(maxApply, apply);
+        }
+
+        synchronized void recordCancelled() {
+            cancelled++;
+        }
+
+        public synchronized long getCompleted() { return completed; }
+        public synchronized long getCancelled() { return cancelled; }
+        public synchronized long getLastQueueNanos() { return lastQueue; }
+        public synchronized long getLastMatchNanos() { return lastMatch; }
+        public synchronized long getLastEdtNanos() { return lastEdt; }
+        public synchronized long getLastApplyNanos() { return lastApply; }
+        public synchronized long getMaxQueueNanos() { return maxQueue; }
+        public synchronized long getMaxMatchNanos() { return maxMatch; }
+        public synchronized long getMaxEdtNanos() { return maxEdt; }
+        public synchronized long getMaxApplyNanos() { return maxApply; }
+
+        @Override
+        public synchronized String toString() {
+            long n = Math.max(completed, 1);
+            return String.format(
+                "search: %d applied, %d cancelled | last queue %.2fms match %.2fms edt %.2fms apply %.2fms"
+                    + " | avg queue %.2fms match %.2fms edt %.2fms apply %.2fms",
+                completed, cancelled,
+                ms(lastQueue), ms(lastMatch), ms(lastEdt), ms(lastApply),
+                ms(totalQueue / n), ms(totalMatch / n), ms(totalEdt / n), ms(totalApply / n));
+        }
+
+        private static double ms(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package misc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+public class SearchIndex {
+    // Trigram inverted index over card search text.
+    // Document ids are positions in the list passed to the constructor,
+    // so every posting list is naturally sorted ascending.
+
+    private static final int[] EMPTY = new int[0];
+
+    private final String[] documents;
+    private final Map<Long, int[]> postings;
+    private final int[] allIds;
+
+    public SearchIndex(List<String> texts) {
+        documents = new String[texts.size()];
+        allIds = new int[texts.size()];
+
+        Map<Long, IntList> building = new HashMap<>();
+        for (int id = 0; id < documents.length; id++) {
+            String doc = normalize(texts.get(id));
+            documents[id] = doc;
+            allIds[id] = id;
+
+            for (int i = 0; i + 3 <= doc.length(); i++) {
+                IntList list = building.computeIfAbsent(trigram(doc, i), k -> new IntList());
+                list.addIfNotLast(id);
+            }
+        }
+
+        postings = new HashMap<>(building.size() * 2);
+        for (Map.Entry<Long, IntList> e : building.entrySet()) {
+            postings.put(e.getKey(), e.getValue().toArray());
+        }
+    }
+
+    // Lowercase form used for both indexed text and queries
+    public static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    public int size() {
+        return documents.length;
+    }
+
+    // Normalized text of a document, for callers that need to do their own matching
+    public String document(int id) {
+        return documents[id];
+    }
+
+    // Returns the sorted ids of every document containing the query as a substring.
+    // An empty query matches everything.
+    public int[] search(String query) {
+        String q = normalize(query).trim();
+        if (q.isEmpty()) {
+            return allIds;
+        }
+
+        // Too short to form a trigram, fall back to scanning pre-normalized text
+        if (q.length() < 3) {
+            return scan(q, allIds, allIds.length);
+        }
+
+        // A document has the trigram exactly when it contains the query
+        if (q.length() == 3) {
+            int[] list = postings.get(trigram(q, 0));
+            return list == null ? EMPTY : list;
+        }
+
+        List<int[]> lists = new ArrayList<>();
+        for (int i = 0; i + 3 <= q.length(); i++) {
+            int[] list = postings.get(trigram(q, i));
+            if (list == null) {
+                return EMPTY;
+            }
+            lists.add(list);
+        }
+
+        // Intersect smallest lists first so the candidate set shrinks fastest
+        lists.sort((a, b) -> Integer.compare(a.length, b.length));
+        int[] candidates = lists.get(0).clone();
+        int count = candidates.length;
+        for (int i = 1; i < lists.size() && count > 0; i++) {
+            count = intersect(candidates, count, lists.get(i));
+        }
+
+        // Trigrams are necessary but not sufficient, verify the actual substring
+        return scan(q, candidates, count);
+    }
+
+    // Upper bound on how many documents contain the query, from its rarest
+    // trigram; no work beyond a few lookups
+    public int estimate(String query) {
+        String q = normalize(query).trim();
+        if (q.length() < 3) {
+            return documents.length;
+        }
+        int smallest = documents.length;
+        for (int i = 0; i + 3 <= q.length(); i++) {
+            int[] list = postings.get(trigram(q, i));
+            if (list == null) {
+                return 0;
+            }
+            smallest = Math.min(smallest, list.length);
+        }
+        return smallest;
+    }
+
+    private int[] scan(String q, int[] ids, int count) {
+        int[] result = new int[count];
+        int n = 0;
+        for (int i = 0; i < count; i++) {
+            if (documents[ids[i]].contains(q)) {
+                result[n++] = ids[i];
+            }
+        }
+        return n == result.length ? result : Arrays.copyOf(result, n);
+    }
+
+    // Intersects target[0..count) with other in place, returning the new count
+    static int intersect(int[] target, int count, int[] other) {
+        int i = 0, j = 0, n = 0;
+        while (i < count && j < other.length) {
+            if (target[i] < other[j]) {
+                i++;
+            } else if (target[i] > other[j]) {
+                j++;
+            } else {
+                target[n++] = target[i];
+                i++;
+                j++;
+            }
+        }
+        return n;
+    }
+
+    private static long trigram(String s, int i) {
+        return ((long) s.charAt(i) << 32) | ((long) s.charAt(i + 1) << 16) | s.charAt(i + 2);
+    }
+
+    // Minimal growable int array so postings aren't boxed while building
+    static class IntList {
+        int[] data = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, size * 2);
+            }
+            data[size++] = value;
+        }
+
+        void addIfNotLast(int value) {
+            if (size == 0 || data[size - 1] != value) {
+                add(value);
+            }
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(data, size);
+        }
+    }
+}
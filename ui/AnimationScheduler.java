@@ -0,0 +1,100 @@
+package ui;
+
+import java.awt.Container;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.swing.JComponent;
+import javax.swing.Timer;
+
+public class AnimationScheduler {
+    // One Swing timer drives every running card animation. Each tick steps all
+    // of them, then revalidates each affected container once, so twenty cards
+    // opening together cost one layout pass per frame instead of twenty.
+    //
+    // When more than -Dravens.ui.instantAbove animations (default 40) are in
+    // flight, e.g. after "Expand All", they all jump straight to their end
+    // state on the next tick instead of animating.
+
+    private static final int FRAME_MILLIS = 16;
+    private static final AnimationScheduler SHARED =
+        new AnimationScheduler(Integer.getInteger("ravens.ui.instantAbove", 40));
+
+    private final int instantThreshold;
+    private final Map<JComponent, Animation> active = new LinkedHashMap<>();
+    private final Timer timer;
+
+    public AnimationScheduler(int instantThreshold) {
+        this.instantThreshold = instantThreshold;
+        this.timer = new Timer(FRAME_MILLIS, e -> tick());
+        this.timer.setCoalesce(true);
+    }
+
+    public static AnimationScheduler shared() {
+        return SHARED;
+    }
+
+    // Starts animating a component, replacing any animation it already had. EDT only.
+    public void schedule(JComponent component, Animation animation) {
+        active.put(component, animation);
+        if (!timer.isRunning()) {
+            timer.start();
+        }
+    }
+
+    public void cancel(JComponent component) {
+        active.remove(component);
+    }
+
+    public int activeCount() {
+        return active.size();
+    }
+
+    private void tick() {
+        boolean instant = active.size() > instantThreshold;
+        Map<Container, Boolean> dirty = new IdentityHashMap<>();
+        List<JComponent> finished = new ArrayList<>();
+
+        for (Map.Entry<JComponent, Animation> e : active.entrySet()) {
+            JComponent component = e.getKey();
+            Animation animation = e.getValue();
+            boolean done;
+            if (instant) {
+                animation.finish();
+                done = true;
+            } else {
+                done = animation.step();
+            }
+            if (done) {
+                finished.add(component);
+            }
+
+            // Mark only the component; the whole chain is validated once below
+            component.invalidate();
+            Container parent = component.getParent();
+            dirty.put(parent != null ? parent : component, Boolean.TRUE);
+        }
+        for (JComponent component : finished) {
+            active.remove(component);
+        }
+
+        for (Container container : dirty.keySet()) {
+            container.revalidate();
+            container.repaint();
+        }
+
+        if (active.isEmpty()) {
+            timer.stop();
+        }
+    }
+
+    public interface Animation {
+        // Advance one frame; return true once the end state is reached
+        boolean step();
+
+        // Jump straight to the end state
+        void finish();
+    }
+}
@@ -0,0 +1,136 @@
+package ui;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.Dimension;
+import java.awt.Insets;
+import java.awt.LayoutManager;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import javax.swing.JComponent;
+import misc.PerfEvents;
+
+public class CardColumnLayout implements LayoutManager {
+    // Vertical stack for the card list, laid out like a left-aligned Y_AXIS
+    // BoxLayout: every component at its preferred height (capped at its maximum)
+    // and as wide as the container allows up to its maximum width. Each
+    // ExpandableCard, and any component marked with GAP_AFTER, is followed by a
+    // fixed gap, so the spacing travels with the card and needs no spacer
+    // components.
+    //
+    // setOrder shows any subset of the children in any order without touching
+    // the container's child list, so switching between layouts is one layout
+    // pass instead of removing and re-adding every component. Children left
+    // out of the order are parked at zero size. Only components whose bounds
+    // actually change are moved and repainted.
+
+    // Client property: Boolean.TRUE to put the card gap after a non-card component
+    public static final String GAP_AFTER = "CardColumnLayout.gapAfter";
+
+    private final int cardGap;
+    private List<Component> order; // null: the container's own child order
+
+    public CardColumnLayout(int cardGap) {
+        this.cardGap = cardGap;
+    }
+
+    // Takes effect on the next layout, so callers batch any number of changes
+    // and revalidate once
+    public void setOrder(List<Component> order) {
+        this.order = order;
+    }
+
+    public List<Component> getOrder() {
+        return order;
+    }
+
+    @Override
+    public void addLayoutComponent(String name, Component comp) {
+    }
+
+    @Override
+    public void removeLayoutComponent(Component comp) {
+    }
+
+    @Override
+    public Dimension preferredLayoutSize(Container parent) {
+        synchronized (parent.getTreeLock()) {
+            int width = 0;
+            int height = 0;
+            for (Component c : laidOut(parent)) {
+                if (!shown(parent, c)) {
+                    continue;
+                }
+                Dimension pref = c.getPreferredSize();
+                width = Math.max(width, pref.width);
+                height += heightOf(c, pref) + gapAfter(c);
+            }
+            Insets insets = parent.getInsets();
+            return new Dimension(width + insets.left + insets.right, height + insets.top + insets.bottom);
+        }
+    }
+
+    @Override
+    public Dimension minimumLayoutSize(Container parent) {
+        return preferredLayoutSize(parent);
+    }
+
+    @Override
+    public void layoutContainer(Container parent) {
+        PerfEvents.Layout event = new PerfEvents.Layout();
+        event.begin();
+        synchronized (parent.getTreeLock()) {
+            Insets insets = parent.getInsets();
+            int width = Math.max(0, parent.getWidth() - insets.left - insets.right);
+            int y = insets.top;
+
+            List<Component> components = laidOut(parent);
+            Set<Component> placed = order != null
+                ? Collections.newSetFromMap(new IdentityHashMap<>(components.size() * 2))
+                : null;
+            for (Component c : components) {
+                if (!shown(parent, c)) {
+                    continue;
+                }
+                Dimension pref = c.getPreferredSize();
+                int height = heightOf(c, pref);
+                c.setBounds(insets.left, y, Math.min(width, c.getMaximumSize().width), height);
+                y += height + gapAfter(c);
+                if (placed != null) {
+                    placed.add(c);
+                }
+            }
+
+            if (placed != null) {
+                for (Component c : parent.getComponents()) {
+                    if (!placed.contains(c)) {
+                        c.setBounds(0, 0, 0, 0);
+                    }
+                }
+            }
+            event.components = components.size();
+        }
+        event.commit();
+    }
+
+    private List<Component> laidOut(Container parent) {
+        return order != null ? order : Arrays.asList(parent.getComponents());
+    }
+
+    private static boolean shown(Container parent, Component c) {
+        return c.getParent() == parent && c.isVisible();
+    }
+
+    private static int heightOf(Component c, Dimension pref) {
+        return Math.min(pref.height, c.getMaximumSize().height);
+    }
+
+    private int gapAfter(Component c) {
+        boolean gap = c instanceof ExpandableCard
+            || (c instanceof JComponent && Boolean.TRUE.equals(((JComponent) c).getClientProperty(GAP_AFTER)));
+        return gap ? cardGap : 0;
+    }
+}
@@ -49,6 +49,10 @@ public class DialogHelper {
                 "• Type in the search box to filter results\n" +
                 "• Search by name, position, or role\n" +
                 "• Examples: 'Lamar', 'QB', 'Coach', 'Medical'\n" +
+                "• Compare stats: 'rushing yards > 5000', 'pro bowls >= 3'\n" +
+                "• Combine with AND, OR, NOT and parentheses:\n" +
+                "    position:QB AND \"MVP\" NOT category:coach\n" +
+                "• Fields: position:, category:, name:, role:, stat:\n" +
                 "• Clear the search box to show all entries",
                 "Search Help",
                 JOptionPane.INFORMATION_MESSAGE);
@@ -60,6 +64,7 @@ public class DialogHelper {
                 "• Double-click for quick info popup\n" +
                 "• Use 'Expand All' to open all visible cards\n" +
                 "• Use 'Collapse All' to close all cards\n" +
+                "• Use 'Sort' to order cards by a stat, highest first\n" +
                 "• Scroll to browse all sections",
                 "Navigation Help",
                 JOptionPane.INFORMATION_MESSAGE);
@@ -0,0 +1,216 @@
+package ui;
+
+import java.awt.AWTEvent;
+import java.awt.EventQueue;
+import java.awt.Toolkit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.swing.SwingUtilities;
+import misc.PerfEvents;
+
+public class EdtMonitor {
+    // Watches the event dispatch thread. A pushed EventQueue notes when each
+    // event starts dispatching; a daemon thread checks a few times per stall
+    // threshold, and while one event has been running longer than that it
+    // samples the EDT's stack. When the event finishes the stall is logged to
+    // stderr with its most frequent frames, and committed as a JFR event.
+    //
+    // The same thread posts a probe every PROBE_MILLIS to measure how long
+    // events wait in the queue before they run.
+    //
+    // Nothing is installed unless asked for, so a normal run pays nothing.
+
+    private static final long PROBE_MILLIS = 100;
+    private static final int REPORTED_FRAMES = 8;
+
+    private static EdtMonitor installed;
+
+    private final long stallNanos;
+    private final boolean logStalls;
+    private final TimingQueue queue = new TimingQueue();
+
+    private volatile Thread edt;
+    private volatile long lastQueueLatency;
+    private volatile long maxQueueLatency; // since the last maxQueueLatencyAndReset
+    private volatile int stalls;
+    private boolean probePending; // guarded by this
+
+    private EdtMonitor(long stallMillis, boolean logStalls) {
+        this.stallNanos = stallMillis * 1_000_000L;
+        this.logStalls = logStalls;
+    }
+
+    // Installs the monitor once; later calls return the same one. With
+    // logStalls false it only measures, for the overlay.
+    public static synchronized EdtMonitor install(long stallMillis, boolean logStalls) {
+        if (installed == null) {
+            installed = new EdtMonitor(stallMillis, logStalls);
+            Toolkit.getDefaultToolkit().getSystemEventQueue().push(installed.queue);
+            Thread watchdog = new Thread(installed::watch, "edt-watchdog");
+            watchdog.setDaemon(true);
+            watchdog.start();
+        }
+        return installed;
+    }
+
+    // Null unless install was called
+    public static synchronized EdtMonitor get() {
+        return installed;
+    }
+
+    public long lastQueueLatencyNanos() {
+        return lastQueueLatency;
+    }
+
+    public long maxQueueLatencyAndReset() {
+        long max = maxQueueLatency;
+        maxQueueLatency = 0;
+        return max;
+    }
+
+    public int stallCount() {
+        return stalls;
+    }
+
+    private void watch() {
+        long tick = Math.max(5, stallNanos / 4_000_000L);
+        long lastProbe = 0;
+        long stalledDispatch = 0; // start time of the dispatch being sampled
+        String stalledEvent = null;
+        Map<String, Integer> frames = new LinkedHashMap<>(); // first sample innermost first
+        try {
+            while (true) {
+                Thread.sleep(tick);
+                long now = System.nanoTime();
+
+                long started = queue.dispatchStarted;
+                if (stalledDispatch != 0 && started != stalledDispatch) {
+                    reportStall(stalledEvent, now - stalledDispatch, frames);
+                    stalledDispatch = 0;
+                    frames.clear();
+                }
+                Thread thread = edt;
+                if (started != 0 && now - started > stallNanos && thread != null) {
+                    if (stalledDispatch == 0) {
+                        stalledDispatch = started;
+                        stalledEvent = describe(queue.dispatching);
+                    }
+                    sample(thread, frames);
+                }
+
+                if (now - lastProbe >= PROBE_MILLIS * 1_000_000L) {
+                    lastProbe = now;
+                    probe(now);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // One probe in the queue at a time, so a stalled EDT doesn't pile them up
+    private void probe(long posted) {
+        synchronized (this) {
+            if (probePending) {
+                return;
+            }
+            probePending = true;
+        }
+        SwingUtilities.invokeLater(() -> {
+            long latency = System.nanoTime() - posted;
+            lastQueueLatency = latency;
+            if (latency > maxQueueLatency) {
+                maxQueueLatency = latency;
+            }
+            synchronized (this) {
+                probePending = false;
+            }
+        });
+    }
+
+    // Counts each frame once per sample, so the count is how many samples it showed up in
+    private static void sample(Thread thread, Map<String, Integer> frames) {
+        StackTraceElement[] stack = thread.getStackTrace();
+        Set<String> seen = new HashSet<>();
+        for (StackTraceElement frame : stack) {
+            String key = frame.toString();
+            if (seen.add(key)) {
+                frames.merge(key, 1, Integer::sum);
+            }
+        }
+    }
+
+    private void reportStall(String event, long nanos, Map<String, Integer> frames) {
+        stalls++;
+        List<Map.Entry<String, Integer>> hottest = new ArrayList<>(frames.entrySet());
+        // The app's own frames, most samples first; the stable sort keeps ties innermost first
+        hottest.removeIf(e -> !isAppFrame(e.getKey()));
+        hottest.sort((a, b) -> Integer.compare(b.getValue(), a.getValue()));
+
+        PerfEvents.EdtStall jfr = new PerfEvents.EdtStall();
+        jfr.event = event;
+        jfr.stall = nanos / 1_000_000L;
+        jfr.topFrame = hottest.isEmpty() ? "" : hottest.get(0).getKey();
+        jfr.commit();
+
+        if (!logStalls) {
+            return;
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("EDT stall: %,d ms dispatching %s%n", nanos / 1_000_000L, event));
+        for (int i = 0; i < Math.min(REPORTED_FRAMES, hottest.size()); i++) {
+            Map.Entry<String, Integer> e = hottest.get(i);
+            sb.append(String.format("    %3dx at %s%n", e.getValue(), e.getKey()));
+        }
+        System.err.print(sb);
+    }
+
+    // Records the start of every dispatch. A modal dialog runs a nested loop
+    // inside one dispatch; the nested events reset the start time, so the
+    // time spent waiting in the dialog doesn't count as a stall. When a
+    // nested event is done the outer one is timed again from that point on,
+    // so whatever it does after the dialog closes is still watched.
+    private class TimingQueue extends EventQueue {
+        volatile long dispatchStarted; // 0 while idle
+        volatile AWTEvent dispatching;
+
+        @Override
+        protected void dispatchEvent(AWTEvent event) {
+            if (edt == null) {
+                edt = Thread.currentThread();
+            }
+            AWTEvent outer = dispatching;
+            boolean nested = dispatchStarted != 0;
+            dispatching = event;
+            dispatchStarted = System.nanoTime();
+            try {
+                super.dispatchEvent(event);
+            } finally {
+                dispatching = nested ? outer : null;
+                dispatchStarted = nested ? System.nanoTime() : 0;
+            }
+        }
+    }
+
+    // Drops JDK frames, lambda shims and this class's own dispatch hook;
+    // frame strings look like "app//App.filterByCategory(App.java:200)"
+    private static boolean isAppFrame(String frame) {
+        String f = frame.startsWith("app//") ? frame.substring(5) : frame;
+        return !(f.startsWith("java.") || f.startsWith("javax.") || f.startsWith("sun.") || f.startsWith("jdk.")
+            || f.contains("$$Lambda") || f.startsWith(EdtMonitor.class.getName()));
+    }
+
+    // Event class plus source, e.g. "MouseEvent on ExpandableCard$1"
+    private static String describe(AWTEvent event) {
+        if (event == null) {
+            return "?";
+        }
+        Object source = event.getSource();
+        String name = event.getClass().getSimpleName();
+        return source == null ? name : name + " on " + source.getClass().getName();
+    }
+}
@@ -2,62 +2,91 @@ package ui;
 
 import java.awt.*;
 import java.awt.event.*;
+import java.lang.ref.SoftReference;
+import java.util.Arrays;
 import javax.swing.*;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Highlighter;
+import misc.ColorScheme;
 
 public class ExpandableCard extends JPanel {
 
-    private static final Color RAVENS_PURPLE = new Color(36, 23, 115);
-    private static final Color RAVENS_GOLD = new Color(158, 124, 12);
-    private static final Color RAVENS_BLACK = new Color(0, 0, 0);
-    private static final Color CARD_BG = Color.WHITE;
-    private static final Color DETAIL_BG = new Color(248, 248, 250);
-    private static final Color HOVER_COLOR = new Color(245, 243, 255);
-
     private JPanel detailPanel;
     private JLabel arrowLabel;
     private JPanel headerPanel;
+    private JPanel leftPanel;
+    private HighlightLabel nameLabel;
+    private HighlightLabel subtitleLabel;
 
     private boolean expanded = false;
-    public String searchText;
-    private JTextArea detailText;
+    private String details;
+    private JTextArea detailText; // detailPanel and detailText are built on first expand
+    private SoftReference<JPanel> releasedDetail; // collapsed detail panel, kept until memory runs short
+    private int[] detailSpans = NO_SPANS; // search matches in details, start / end pairs
 
-    private Timer animationTimer;
-    private int animationHeight = 0;
+    private int animationHeight = 0; // current detail panel height, read by its size overrides
     private int targetHeight = 0;
     private int fullDetailHeight = 0;
+    private int measuredWidth = -1; // card width fullDetailHeight was measured at
+    private int measureRequest = 0; // newest background measurement; older results are dropped
+
+    private static final int DETAIL_PADDING_WIDTH = 36;  // left+right border padding
+    private static final int DETAIL_PADDING_HEIGHT = 33; // top+bottom border padding
 
     private static final int ANIMATION_SPEED = 20;
 
+    private static final int[] NO_SPANS = new int[0];
+
+    // Stepped by the shared scheduler, which also does the revalidate
+    private final AnimationScheduler.Animation heightAnimation = new AnimationScheduler.Animation() {
+        public boolean step() {
+            if (animationHeight < targetHeight) {
+                animationHeight = Math.min(animationHeight + ANIMATION_SPEED, targetHeight);
+            } else if (animationHeight > targetHeight) {
+                animationHeight = Math.max(animationHeight - ANIMATION_SPEED, targetHeight);
+            }
+            detailPanel.invalidate();
+            if (animationHeight != targetHeight) {
+                return false;
+            }
+            releaseIfCollapsed();
+            return true;
+        }
+
+        public void finish() {
+            animationHeight = targetHeight;
+            detailPanel.invalidate();
+            releaseIfCollapsed();
+        }
+    };
+
     public ExpandableCard(String name, String subtitle, String details, boolean isPlayer) {
 
-    this.searchText = name + " " + subtitle + " " + details;
+    this.details = details;
 
     setLayout(new BorderLayout());  // Changed from BoxLayout
-    setBackground(CARD_BG);
-    setBorder(BorderFactory.createCompoundBorder(
-            BorderFactory.createLineBorder(new Color(230, 230, 235), 1),
-            BorderFactory.createEmptyBorder(0, 0, 0, 0)
-    ));
+    setBackground(ColorScheme.CARD_BG);
+    setBorder(ColorScheme.CARD_BORDER);
     setAlignmentX(Component.LEFT_ALIGNMENT);
 
     // ===== HEADER =====
     headerPanel = new JPanel(new BorderLayout());
-    headerPanel.setBackground(CARD_BG);
-    headerPanel.setBorder(BorderFactory.createEmptyBorder(18, 18, 18, 18));
-    headerPanel.setCursor(new Cursor(Cursor.HAND_CURSOR));
+    headerPanel.setBackground(ColorScheme.CARD_BG);
+    headerPanel.setBorder(ColorScheme.CARD_HEADER_PADDING);
+    headerPanel.setCursor(ColorScheme.HAND_CURSOR);
 
-    JPanel leftPanel = new JPanel();
+    leftPanel = new JPanel();
     leftPanel.setLayout(new BoxLayout(leftPanel, BoxLayout.Y_AXIS));
-    leftPanel.setBackground(CARD_BG);
+    leftPanel.setBackground(ColorScheme.CARD_BG);
 
-    JLabel nameLabel = new JLabel(name);
-    nameLabel.setFont(new Font("Arial", Font.BOLD, 15));
-    nameLabel.setForeground(RAVENS_BLACK);
+    nameLabel = new HighlightLabel(name);
+    nameLabel.setFont(ColorScheme.CARD_NAME_FONT);
+    nameLabel.setForeground(ColorScheme.RAVENS_BLACK);
 
-    JLabel subtitleLabel = new JLabel(subtitle);
-    subtitleLabel.setFont(new Font("Arial", Font.PLAIN, 13));
-    subtitleLabel.setForeground(new Color(100, 100, 120));
-    subtitleLabel.setBorder(BorderFactory.createEmptyBorder(4, 0, 0, 0));
+    subtitleLabel = new HighlightLabel(subtitle);
+    subtitleLabel.setFont(ColorScheme.CARD_SUBTITLE_FONT);
+    subtitleLabel.setForeground(ColorScheme.SUBTITLE_TEXT);
+    subtitleLabel.setBorder(ColorScheme.CARD_SUBTITLE_PADDING);
 
     leftPanel.add(nameLabel);
     if (!subtitle.isEmpty()) {
@@ -65,48 +94,28 @@ public class ExpandableCard extends JPanel {
     }
 
     arrowLabel = new JLabel("▼");
-    arrowLabel.setFont(new Font("Arial", Font.PLAIN, 12));
-    arrowLabel.setForeground(RAVENS_GOLD);
+    arrowLabel.setFont(ColorScheme.ARROW_FONT);
+    arrowLabel.setForeground(ColorScheme.RAVENS_GOLD);
 
     headerPanel.add(leftPanel, BorderLayout.CENTER);
     headerPanel.add(arrowLabel, BorderLayout.EAST);
 
-    // ===== DETAIL PANEL =====
-    detailPanel = new JPanel(new BorderLayout());
-    detailPanel.setBackground(DETAIL_BG);
-    detailPanel.setBorder(BorderFactory.createEmptyBorder(15, 18, 18, 18));
-
-    detailText = new JTextArea(details);
-    detailText.setEditable(false);
-    detailText.setLineWrap(true);
-    detailText.setWrapStyleWord(true);
-    detailText.setBackground(DETAIL_BG);
-    detailText.setFont(new Font("Arial", Font.PLAIN, 13));
-    detailText.setForeground(new Color(60, 60, 70));
-
-    detailPanel.add(detailText, BorderLayout.CENTER);  // CENTER fills all available space
-
-    // Collapse initially
-    detailPanel.setPreferredSize(new Dimension(0, 0));
-    detailPanel.setMaximumSize(new Dimension(Integer.MAX_VALUE, 0));
-    detailPanel.setMinimumSize(new Dimension(0, 0));
-
     // ===== CLICK LISTENER =====
     headerPanel.addMouseListener(new MouseAdapter() {
 
         @Override
         public void mouseEntered(MouseEvent e) {
             if (!expanded) {
-                headerPanel.setBackground(HOVER_COLOR);
-                leftPanel.setBackground(HOVER_COLOR);
+                headerPanel.setBackground(ColorScheme.HOVER_COLOR);
+                leftPanel.setBackground(ColorScheme.HOVER_COLOR);
             }
         }
 
         @Override
         public void mouseExited(MouseEvent e) {
             if (!expanded) {
-                headerPanel.setBackground(CARD_BG);
-                leftPanel.setBackground(CARD_BG);
+                headerPanel.setBackground(ColorScheme.CARD_BG);
+                leftPanel.setBackground(ColorScheme.CARD_BG);
             }
         }
 
@@ -116,60 +125,269 @@ public class ExpandableCard extends JPanel {
         }
     });
 
+    addComponentListener(new ComponentAdapter() {
+        @Override
+        public void componentResized(ComponentEvent e) {
+            onResized();
+        }
+    });
+
     add(headerPanel, BorderLayout.NORTH);   // NORTH keeps header at top, natural height
-    add(detailPanel, BorderLayout.CENTER);  // CENTER stretches to fill width automatically
 }
 
-    private void toggleExpand() {
-        setExpanded(!expanded);
+    // Most cards are never opened, so the detail subtree is only built when first needed
+    private void ensureDetailPanel() {
+        if (detailPanel != null) {
+            return;
+        }
+        JPanel released = releasedDetail != null ? releasedDetail.get() : null;
+        releasedDetail = null;
+        if (released != null) {
+            detailPanel = released;
+            detailText = (JTextArea) released.getComponent(0);
+        } else {
+            // Sized from animationHeight into one Dimension each, updated in
+            // place, so layout passes during an animation don't allocate
+            detailPanel = new JPanel(new BorderLayout()) {
+                private final Dimension preferred = new Dimension();
+                private final Dimension maximum = new Dimension();
+                private final Dimension minimum = new Dimension();
+
+                @Override
+                public Dimension getPreferredSize() {
+                    preferred.setSize(animationHeight > 0 ? ExpandableCard.this.getWidth() : 0, animationHeight);
+                    return preferred;
+                }
+
+                @Override
+                public Dimension getMaximumSize() {
+                    maximum.setSize(Short.MAX_VALUE, animationHeight);
+                    return maximum;
+                }
+
+                @Override
+                public Dimension getMinimumSize() {
+                    minimum.setSize(0, 0);
+                    return minimum;
+                }
+            };
+            detailPanel.setBackground(ColorScheme.DETAIL_BG);
+            detailPanel.setBorder(ColorScheme.DETAIL_PADDING);
+
+            detailText = new JTextArea(details);
+            detailText.setEditable(false);
+            detailText.setLineWrap(true);
+            detailText.setWrapStyleWord(true);
+            detailText.setBackground(ColorScheme.DETAIL_BG);
+            detailText.setFont(ColorScheme.DETAIL_FONT);
+            detailText.setForeground(ColorScheme.DETAIL_TEXT);
+
+            detailPanel.add(detailText, BorderLayout.CENTER);  // CENTER fills all available space
+        }
+        applyDetailHighlights();
+        add(detailPanel, BorderLayout.CENTER);  // CENTER stretches to fill width automatically
     }
 
-    public void setExpanded(boolean expand) {
+    // Once fully collapsed, hand the detail subtree to the GC if it needs the room
+    private void releaseIfCollapsed() {
+        if (expanded || animationHeight != 0 || detailPanel == null) {
+            return;
+        }
+        remove(detailPanel);
+        releasedDetail = new SoftReference<>(detailPanel);
+        detailPanel = null;
+        detailText = null;
+    }
 
-        
-        if (animationTimer != null && animationTimer.isRunning()) {
-            animationTimer.stop();
+    // Marks search matches as start / end offset pairs into each text. Only
+    // parts whose spans actually changed are repainted, so calling this for
+    // every visible card on each keystroke stays cheap.
+    public void setHighlights(int[] nameSpans, int[] subtitleSpans, int[] detailSpans) {
+        nameLabel.setSpans(nameSpans);
+        subtitleLabel.setSpans(subtitleSpans);
+        if (!Arrays.equals(this.detailSpans, detailSpans)) {
+            this.detailSpans = detailSpans;
+            applyDetailHighlights(); // no-op until the detail panel exists
         }
+    }
 
-        // Calculate real height now that we have actual width
-        if (expand && fullDetailHeight == 0) {
-            int availableWidth = getWidth() - 36; // account for left+right border padding
-            detailText.setSize(new Dimension(availableWidth, Short.MAX_VALUE));
-            fullDetailHeight = detailText.getPreferredSize().height + 33; // +33 for panel padding
+    public void clearHighlights() {
+        setHighlights(NO_SPANS, NO_SPANS, NO_SPANS);
+    }
+
+    // The text area repaints just the ranges whose highlights were added or removed
+    private void applyDetailHighlights() {
+        if (detailText == null) {
+            return;
         }
+        Highlighter highlighter = detailText.getHighlighter();
+        highlighter.removeAllHighlights();
+        int length = detailText.getDocument().getLength();
+        for (int i = 0; i + 1 < detailSpans.length; i += 2) {
+            int start = Math.min(detailSpans[i], length);
+            int end = Math.min(detailSpans[i + 1], length);
+            if (start >= end) {
+                continue;
+            }
+            try {
+                highlighter.addHighlight(start, end, ColorScheme.MATCH_PAINTER);
+            } catch (BadLocationException e) {
+                System.err.println("Skipping highlight " + start + "-" + end + ": " + e.getMessage());
+            }
+        }
+    }
 
+    // Swap in new text (e.g. after the CSV changed) while keeping expand state
+    public void update(String name, String subtitle, String details) {
+        clearHighlights(); // offsets were for the old text
+        this.details = details;
+        nameLabel.setText(name);
+        subtitleLabel.setText(subtitle);
+        if (subtitle.isEmpty()) {
+            leftPanel.remove(subtitleLabel);
+        } else if (subtitleLabel.getParent() == null) {
+            leftPanel.add(subtitleLabel);
+        }
+        if (detailText != null) {
+            detailText.setText(details);
+        }
+        releasedDetail = null;
+
+        // Re-measure on the next expand, or right away if already open
+        measuredWidth = -1;
+        if (expanded) {
+            setExpanded(true);
+        }
+        revalidate();
+        repaint();
+    }
+
+    private void toggleExpand() {
+        setExpanded(!expanded);
+    }
+
+    public void setExpanded(boolean expand) {
         this.expanded = expand;
         arrowLabel.setText(expand ? "▲" : "▼");
 
-        targetHeight = expand ? fullDetailHeight : 0;
-        animationHeight = detailPanel.getHeight();
+        if (!expand) {
+            animateTo(0);
+            return;
+        }
+        ensureDetailPanel();
+        if (measuredWidth == getWidth() || useCachedHeight()) {
+            animateTo(fullDetailHeight);
+        } else {
+            // Not measured at this width yet; the card opens once the height is back
+            measureDetail(false);
+        }
+    }
 
-        animationTimer = new Timer(10, e -> {
+    private void animateTo(int height) {
+        targetHeight = height;
+        if (animationHeight == targetHeight) {
+            AnimationScheduler.shared().cancel(this);
+            releaseIfCollapsed();
+            return;
+        }
+        AnimationScheduler.shared().schedule(this, heightAnimation);
+    }
 
-            if (animationHeight < targetHeight) {
-                animationHeight = Math.min(animationHeight + ANIMATION_SPEED, targetHeight);
-            } else if (animationHeight > targetHeight) {
-                animationHeight = Math.max(animationHeight - ANIMATION_SPEED, targetHeight);
+    private boolean useCachedHeight() {
+        int width = getWidth();
+        int textHeight = TextMeasurer.shared().cachedHeight(details, ColorScheme.DETAIL_FONT, width - DETAIL_PADDING_WIDTH);
+        if (textHeight < 0) {
+            return false;
+        }
+        fullDetailHeight = textHeight + DETAIL_PADDING_HEIGHT;
+        measuredWidth = width;
+        return true;
+    }
+
+    // Wrapped text height comes back from the measuring thread; snap skips the animation
+    private void measureDetail(boolean snap) {
+        int width = getWidth();
+        int request = ++measureRequest;
+        TextMeasurer.shared().measure(details, ColorScheme.DETAIL_FONT, width - DETAIL_PADDING_WIDTH, textHeight -> {
+            if (request != measureRequest || !expanded) {
+                return;
             }
+            fullDetailHeight = textHeight + DETAIL_PADDING_HEIGHT;
+            measuredWidth = width;
+            if (snap) {
+                AnimationScheduler.shared().cancel(this);
+                targetHeight = animationHeight = fullDetailHeight;
+                revalidate();
+            } else {
+                animateTo(fullDetailHeight);
+            }
+        });
+    }
 
-                
-            detailPanel.setPreferredSize(
-                    new Dimension(getWidth(), animationHeight)
-            );
+    // Open cards re-wrap their details when the card width changes
+    private void onResized() {
+        if (!expanded || measuredWidth == getWidth() || getWidth() <= 0) {
+            return;
+        }
+        if (useCachedHeight()) {
+            AnimationScheduler.shared().cancel(this);
+            targetHeight = animationHeight = fullDetailHeight;
+            revalidate();
+        } else {
+            measureDetail(true);
+        }
+    }
 
-            detailPanel.setMaximumSize(
-                    new Dimension(Short.MAX_VALUE, animationHeight)
-            );
+    // JLabel that paints match highlights behind its text
+    private static class HighlightLabel extends JLabel {
+        private int[] spans = NO_SPANS;
 
-            revalidate();
-            repaint();
+        HighlightLabel(String text) {
+            super(text);
+        }
 
-            if (animationHeight == targetHeight) {
-                animationTimer.stop();
+        void setSpans(int[] spans) {
+            if (Arrays.equals(this.spans, spans)) {
+                return;
             }
-        });
+            this.spans = spans;
+            repaint();
+        }
 
-        animationTimer.start();
+        @Override
+        public void setText(String text) {
+            spans = NO_SPANS; // offsets were for the old text
+            super.setText(text);
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            String text = getText();
+            if (spans.length > 0 && text != null && !text.isEmpty()) {
+                FontMetrics fm = getFontMetrics(getFont());
+                Insets insets = getInsets();
+                Rectangle view = new Rectangle(insets.left, insets.top,
+                    getWidth() - insets.left - insets.right, getHeight() - insets.top - insets.bottom);
+                Rectangle iconRect = new Rectangle();
+                Rectangle textRect = new Rectangle();
+                SwingUtilities.layoutCompoundLabel(this, fm, text, null,
+                    getVerticalAlignment(), getHorizontalAlignment(),
+                    getVerticalTextPosition(), getHorizontalTextPosition(),
+                    view, iconRect, textRect, 0);
+
+                g.setColor(ColorScheme.MATCH_HIGHLIGHT);
+                for (int i = 0; i + 1 < spans.length; i += 2) {
+                    int start = Math.min(spans[i], text.length());
+                    int end = Math.min(spans[i + 1], text.length());
+                    if (start < end) {
+                        int x = textRect.x + fm.stringWidth(text.substring(0, start));
+                        int width = fm.stringWidth(text.substring(start, end));
+                        g.fillRect(x, textRect.y, Math.min(width, textRect.x + textRect.width - x), textRect.height);
+                    }
+                }
+            }
+            super.paintComponent(g);
+        }
     }
 
     private void showQuickInfo(String name, String subtitle, String details) {
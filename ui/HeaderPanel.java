@@ -1,16 +1,19 @@
 package ui;
 
+import classes.Position;
 import java.awt.*;
 import java.awt.event.*;
+import java.util.List;
 import javax.swing.*;
+import misc.ColorScheme;
 
 public class HeaderPanel extends JPanel {
-    private static final Color RAVENS_PURPLE = new Color(36, 23, 115);
-    private static final Color RAVENS_GOLD = new Color(158, 124, 12);
-    private static final Color RAVENS_BLACK = new Color(0, 0, 0);
-    
     private JTextField searchField;
     private JComboBox<String> filterDropdown;
+    private JComboBox<String> sortDropdown;
+    private JLabel sortLabel;
+    private SortListener sortListener;
+    private boolean resetting; // changing a dropdown from code, not the user
     
     public HeaderPanel(JFrame parentFrame, 
                       SearchListener searchListener,
@@ -18,33 +21,31 @@ public class HeaderPanel extends JPanel {
                       ControlButtonListener controlListener) {
         
         setLayout(new BoxLayout(this, BoxLayout.Y_AXIS));
-        setBackground(RAVENS_PURPLE);
-        setBorder(BorderFactory.createEmptyBorder(25, 30, 25, 30));
+        setBackground(ColorScheme.RAVENS_PURPLE);
+        setBorder(ColorScheme.HEADER_PADDING);
 
         // Title
         JLabel title = new JLabel("BALTIMORE RAVENS");
-        title.setFont(new Font("Arial", Font.BOLD, 32));
-        title.setForeground(RAVENS_GOLD);
+        title.setFont(ColorScheme.TITLE_FONT);
+        title.setForeground(ColorScheme.RAVENS_GOLD);
         title.setAlignmentX(Component.LEFT_ALIGNMENT);
 
         JLabel subtitle = new JLabel("2024-25 Roster & Coaching Staff");
-        subtitle.setFont(new Font("Arial", Font.PLAIN, 16));
-        subtitle.setForeground(Color.WHITE);
+        subtitle.setFont(ColorScheme.HEADER_SUBTITLE_FONT);
+        subtitle.setForeground(ColorScheme.HEADER_TEXT);
         subtitle.setAlignmentX(Component.LEFT_ALIGNMENT);
-        subtitle.setBorder(BorderFactory.createEmptyBorder(5, 0, 15, 0));
+        subtitle.setBorder(ColorScheme.HEADER_SUBTITLE_PADDING);
 
         // Search and controls
         JPanel controls = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 0));
-        controls.setBackground(RAVENS_PURPLE);
+        controls.setBackground(ColorScheme.RAVENS_PURPLE);
         controls.setAlignmentX(Component.LEFT_ALIGNMENT);
 
         // Search field
         searchField = new JTextField(25);
-        searchField.setFont(new Font("Arial", Font.PLAIN, 14));
-        searchField.setBorder(BorderFactory.createCompoundBorder(
-            BorderFactory.createLineBorder(RAVENS_GOLD, 1),
-            BorderFactory.createEmptyBorder(8, 12, 8, 12)
-        ));
+        searchField.setFont(ColorScheme.CONTROL_FONT);
+        searchField.setBorder(ColorScheme.SEARCH_FIELD_BORDER);
+        searchField.setToolTipText("Text, or a query like: position:QB AND \"MVP\" NOT category:coach");
         searchField.addKeyListener(new KeyAdapter() {
             public void keyReleased(KeyEvent e) {
                 searchListener.onSearch(searchField.getText());
@@ -64,57 +65,67 @@ public class HeaderPanel extends JPanel {
         RavensButton helpBtn = new RavensButton("Help");
         helpBtn.addActionListener(e -> DialogHelper.showHelpDialog(parentFrame));
 
-        // Filter dropdown
-        String[] filterOptions = {
-            "All Positions",
-            "QB - Quarterbacks",
-            "RB - Running Backs",
-            "WR - Wide Receivers",
-            "TE - Tight Ends",
-            "OL - Offensive Line",
-            "DL - Defensive Line",
-            "LB - Linebackers",
-            "DB - Defensive Backs",
-            "ST - Special Teams",
-            "Coaches"
-        };
+        // Filter dropdown: "All Positions", then one entry per Position in enum order
+        Position[] positions = Position.values();
+        String[] filterOptions = new String[positions.length + 1];
+        filterOptions[0] = "All Positions";
+        for (int i = 0; i < positions.length; i++) {
+            filterOptions[i + 1] = positions[i].label;
+        }
         
         filterDropdown = new JComboBox<>(filterOptions);
-        filterDropdown.setFont(new Font("Arial", Font.PLAIN, 13));
-        filterDropdown.setBackground(Color.WHITE);
-        filterDropdown.setForeground(RAVENS_BLACK);
-        filterDropdown.setCursor(new Cursor(Cursor.HAND_CURSOR));
-        filterDropdown.setMaximumRowCount(11);
+        filterDropdown.setFont(ColorScheme.BUTTON_FONT);
+        filterDropdown.setBackground(ColorScheme.CARD_BG);
+        filterDropdown.setForeground(ColorScheme.RAVENS_BLACK);
+        filterDropdown.setCursor(ColorScheme.HAND_CURSOR);
+        filterDropdown.setMaximumRowCount(filterOptions.length);
         
         filterDropdown.addActionListener(e -> {
-            String selected = (String) filterDropdown.getSelectedItem();
-            String filter = "";
-            
-            if (selected.startsWith("QB")) filter = "QB";
-            else if (selected.startsWith("RB")) filter = "RB";
-            else if (selected.startsWith("WR")) filter = "WR";
-            else if (selected.startsWith("TE")) filter = "TE";
-            else if (selected.startsWith("OL")) filter = "OL";
-            else if (selected.startsWith("DL")) filter = "DL";
-            else if (selected.startsWith("LB")) filter = "LB";
-            else if (selected.startsWith("DB")) filter = "DB";
-            else if (selected.startsWith("ST")) filter = "ST";
-            else if (selected.equals("Coaches")) filter = "Coach";
-            
-            filterListener.onFilter(filter);
+            if (resetting) {
+                return;
+            }
+            int selected = filterDropdown.getSelectedIndex();
+            reset(sortDropdown);
+            filterListener.onFilter(selected > 0 ? positions[selected - 1] : null);
+        });
+
+        // Sort dropdown: "Roster Order", then the stats found in the roster.
+        // Hidden until setSortOptions gives it some; a sort and a position
+        // filter replace each other, so picking one resets the other.
+        sortDropdown = new JComboBox<>(new String[] {"Roster Order"});
+        sortDropdown.setFont(ColorScheme.BUTTON_FONT);
+        sortDropdown.setBackground(ColorScheme.CARD_BG);
+        sortDropdown.setForeground(ColorScheme.RAVENS_BLACK);
+        sortDropdown.setCursor(ColorScheme.HAND_CURSOR);
+        sortDropdown.setVisible(false);
+
+        sortDropdown.addActionListener(e -> {
+            if (resetting || sortListener == null) {
+                return;
+            }
+            int selected = sortDropdown.getSelectedIndex();
+            reset(filterDropdown);
+            sortListener.onSort(selected > 0 ? (String) sortDropdown.getSelectedItem() : null);
         });
 
         // Add components to controls panel
         controls.add(new JLabel("Search: ") {{
-            setForeground(Color.WHITE);
-            setFont(new Font("Arial", Font.PLAIN, 14));
+            setForeground(ColorScheme.HEADER_TEXT);
+            setFont(ColorScheme.CONTROL_FONT);
         }});
         controls.add(searchField);
         controls.add(new JLabel("  Filter: ") {{
-            setForeground(Color.WHITE);
-            setFont(new Font("Arial", Font.PLAIN, 14));
+            setForeground(ColorScheme.HEADER_TEXT);
+            setFont(ColorScheme.CONTROL_FONT);
         }});
         controls.add(filterDropdown);
+        sortLabel = new JLabel("  Sort: ") {{
+            setForeground(ColorScheme.HEADER_TEXT);
+            setFont(ColorScheme.CONTROL_FONT);
+            setVisible(false);
+        }};
+        controls.add(sortLabel);
+        controls.add(sortDropdown);
         controls.add(expandAll);
         controls.add(collapseAll);
         controls.add(aboutBtn);
@@ -128,6 +139,61 @@ public class HeaderPanel extends JPanel {
     public void clearSearchField() {
         searchField.setText("");
     }
+
+    public String getSearchText() {
+        return searchField.getText();
+    }
+
+    public void setSortListener(SortListener listener) {
+        sortListener = listener;
+    }
+
+    // Position picked in the filter dropdown, null for all positions
+    public Position getSelectedPosition() {
+        int selected = filterDropdown.getSelectedIndex();
+        return selected > 0 ? Position.values()[selected - 1] : null;
+    }
+
+    // Stat label picked in the sort dropdown, null for roster order
+    public String getSelectedSort() {
+        return sortDropdown.getSelectedIndex() > 0 ? (String) sortDropdown.getSelectedItem() : null;
+    }
+
+    // Stat labels to offer, most useful first; empty hides the sort dropdown.
+    // A stat already picked stays picked if it is still offered.
+    public void setSortOptions(List<String> labels) {
+        String selected = getSelectedSort();
+        resetting = true;
+        try {
+            sortDropdown.removeAllItems();
+            sortDropdown.addItem("Roster Order");
+            for (String label : labels) {
+                sortDropdown.addItem(label);
+            }
+            if (selected != null && labels.contains(selected)) {
+                sortDropdown.setSelectedItem(selected);
+            }
+            sortDropdown.setMaximumRowCount(Math.min(labels.size() + 1, 16));
+        } finally {
+            resetting = false;
+        }
+        sortLabel.setVisible(!labels.isEmpty());
+        sortDropdown.setVisible(!labels.isEmpty());
+        revalidate();
+    }
+
+    // Back to the first option without telling the listener
+    private void reset(JComboBox<String> dropdown) {
+        if (dropdown.getSelectedIndex() <= 0) {
+            return;
+        }
+        resetting = true;
+        try {
+            dropdown.setSelectedIndex(0);
+        } finally {
+            resetting = false;
+        }
+    }
     
     // Listener interfaces
     public interface SearchListener {
@@ -135,9 +201,13 @@ public class HeaderPanel extends JPanel {
     }
     
     public interface FilterListener {
-        void onFilter(String category);
+        void onFilter(Position position); // null for all positions
     }
     
+    public interface SortListener {
+        void onSort(String stat); // a stat label, null for roster order
+    }
+
     public interface ControlButtonListener {
         void onExpandAll();
         void onCollapseAll();
@@ -0,0 +1,120 @@
+package ui;
+
+import java.awt.*;
+import java.util.function.IntSupplier;
+import javax.swing.*;
+import misc.ColorScheme;
+
+public class PerfOverlay extends JComponent {
+    // Small readout in the top right corner of the window: how long the last
+    // paint took, how long events wait on the EDT, how many cards exist and
+    // are shown, and heap use. It sits in the frame's glass pane and has no
+    // mouse listeners, so clicks go straight through to the cards below.
+    //
+    // Paint time comes from a RepaintManager that times each batch of dirty
+    // regions; queue latency from EdtMonitor. Both are only installed along
+    // with the overlay.
+
+    private static final int REFRESH_MILLIS = 500;
+    private static final int MARGIN = 10;
+    private static final int PADDING = 8;
+
+    private final EdtMonitor monitor;
+    private final TimingRepaintManager paints;
+    private final IntSupplier liveCards;
+    private final IntSupplier shownCards;
+    private String[] lines = new String[0];
+
+    private PerfOverlay(EdtMonitor monitor, TimingRepaintManager paints,
+                        IntSupplier liveCards, IntSupplier shownCards) {
+        this.monitor = monitor;
+        this.paints = paints;
+        this.liveCards = liveCards;
+        this.shownCards = shownCards;
+        setOpaque(false);
+    }
+
+    // Call on the EDT once the frame is built
+    public static PerfOverlay install(JFrame frame, IntSupplier liveCards, IntSupplier shownCards) {
+        EdtMonitor monitor = EdtMonitor.install(Long.getLong("ravens.ui.stallMs", 200), false);
+        TimingRepaintManager paints = new TimingRepaintManager();
+        RepaintManager.setCurrentManager(paints);
+
+        PerfOverlay overlay = new PerfOverlay(monitor, paints, liveCards, shownCards);
+        frame.setGlassPane(overlay);
+        overlay.setVisible(true);
+        new Timer(REFRESH_MILLIS, e -> overlay.refresh()).start();
+        return overlay;
+    }
+
+    private void refresh() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = runtime.totalMemory() - runtime.freeMemory();
+        lines = new String[] {
+            String.format("paint  %6.1f ms  max %6.1f", paints.lastNanos / 1e6, paints.maxNanosAndReset() / 1e6),
+            String.format("queue  %6.1f ms  max %6.1f", monitor.lastQueueLatencyNanos() / 1e6,
+                monitor.maxQueueLatencyAndReset() / 1e6),
+            String.format("cards  %,d shown of %,d", shownCards.getAsInt(), liveCards.getAsInt()),
+            String.format("heap   %,d / %,d MB", used >> 20, runtime.maxMemory() >> 20),
+            String.format("stalls %d", monitor.stallCount()),
+        };
+        repaint(box());
+    }
+
+    // Area the readout covers, with room for the widest line
+    private Rectangle box() {
+        FontMetrics fm = getFontMetrics(ColorScheme.PERF_OVERLAY_FONT);
+        int width = 0;
+        for (String line : lines) {
+            width = Math.max(width, fm.stringWidth(line));
+        }
+        // Keep the old box when the text shrinks so it gets cleared too
+        width = Math.max(width, fm.stringWidth("paint  0000.0 ms  max 0000.0"));
+        int w = width + 2 * PADDING;
+        int h = lines.length * fm.getHeight() + 2 * PADDING;
+        return new Rectangle(getWidth() - w - MARGIN, MARGIN, w, h);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        if (lines.length == 0) {
+            return;
+        }
+        Rectangle box = box();
+        Graphics2D g2 = (Graphics2D) g;
+        g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g2.setColor(ColorScheme.PERF_OVERLAY_BG);
+        g2.fillRoundRect(box.x, box.y, box.width, box.height, 8, 8);
+        g2.setFont(ColorScheme.PERF_OVERLAY_FONT);
+        g2.setColor(ColorScheme.PERF_OVERLAY_TEXT);
+        FontMetrics fm = g2.getFontMetrics();
+        int y = box.y + PADDING + fm.getAscent();
+        for (String line : lines) {
+            g2.drawString(line, box.x + PADDING, y);
+            y += fm.getHeight();
+        }
+    }
+
+    // Times each paint of the dirty regions, which is one frame's worth of painting
+    private static class TimingRepaintManager extends RepaintManager {
+        volatile long lastNanos;
+        private volatile long maxNanos;
+
+        @Override
+        public void paintDirtyRegions() {
+            long started = System.nanoTime();
+            super.paintDirtyRegions();
+            long nanos = System.nanoTime() - started;
+            lastNanos = nanos;
+            if (nanos > maxNanos) {
+                maxNanos = nanos;
+            }
+        }
+
+        long maxNanosAndReset() {
+            long max = maxNanos;
+            maxNanos = 0;
+            return max;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package ui;
+
+import java.awt.*;
+import javax.swing.*;
+import misc.ColorScheme;
+
+public class SkeletonCard extends JComponent {
+    // Placeholder the size of a collapsed ExpandableCard, shown while the
+    // roster is still loading: the card outline with grey bars where the name
+    // and subtitle will be. Purely painted, no child components.
+
+    private static final int HEIGHT = 77; // collapsed card with a subtitle line
+
+    private final int nameWidth;
+
+    // Bar widths vary a little so a column of placeholders doesn't look stamped
+    public SkeletonCard(int index) {
+        nameWidth = 140 + (index * 37) % 90;
+        setAlignmentX(Component.LEFT_ALIGNMENT);
+        setBorder(ColorScheme.CARD_BORDER);
+        putClientProperty(CardColumnLayout.GAP_AFTER, Boolean.TRUE);
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        return new Dimension(nameWidth + 36, HEIGHT);
+    }
+
+    @Override
+    public Dimension getMaximumSize() {
+        return new Dimension(Integer.MAX_VALUE, HEIGHT);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        g.setColor(ColorScheme.CARD_BG);
+        g.fillRect(0, 0, getWidth(), getHeight());
+        g.setColor(ColorScheme.SKELETON_BAR);
+        g.fillRect(18, 20, nameWidth, 14);
+        g.fillRect(18, 44, nameWidth / 3, 11);
+    }
+}
@@ -0,0 +1,217 @@
+package ui;
+
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.font.FontRenderContext;
+import java.awt.font.LineBreakMeasurer;
+import java.awt.font.TextAttribute;
+import java.awt.image.BufferedImage;
+import java.text.AttributedString;
+import java.text.BreakIterator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.swing.SwingUtilities;
+
+public class TextMeasurer {
+    // Wrapped height of plain text, as a word-wrapping JTextArea would lay it
+    // out, computed with LineBreakMeasurer instead of a text component so it
+    // can run on a background thread. Results are cached by text, font and
+    // width bucket. Widths are rounded down to the bucket, so a cached height
+    // can have a spare line but never cuts text off.
+    //
+    // Callbacks are handed to the EDT in batches, one invokeLater per batch,
+    // so a few thousand measurements don't flood the event queue.
+
+    private static final int WIDTH_BUCKET = 8;
+    private static final int MAX_ENTRIES = 100_000;
+    private static final TextMeasurer SHARED = new TextMeasurer();
+
+    private final Map<Key, Integer> cache = new ConcurrentHashMap<>();
+    private final Map<Font, FontMetrics> metrics = new ConcurrentHashMap<>();
+    private final FontRenderContext frc;
+    private final Graphics2D metricsGraphics;
+    private final ExecutorService worker;
+
+    private final List<Runnable> ready = new ArrayList<>(); // guarded by this
+    private boolean drainPosted;
+
+    public TextMeasurer() {
+        metricsGraphics = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics();
+        frc = metricsGraphics.getFontRenderContext();
+        worker = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "text-measure");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public static TextMeasurer shared() {
+        return SHARED;
+    }
+
+    // Cached height for this text at this width, or -1 if it hasn't been measured yet
+    public int cachedHeight(String text, Font font, int width) {
+        Integer height = cache.get(new Key(text, font, bucket(width)));
+        return height == null ? -1 : height;
+    }
+
+    // Measures on the calling thread, going through the cache
+    public int measureNow(String text, Font font, int width) {
+        Key key = new Key(text, font, bucket(width));
+        Integer height = cache.get(key);
+        if (height == null) {
+            height = wrappedHeight(text, font, key.width);
+            store(key, height);
+        }
+        return height;
+    }
+
+    // Measures on the background thread and reports the height on the EDT
+    public void measure(String text, Font font, int width, Callback callback) {
+        Key key = new Key(text, font, bucket(width));
+        Integer cached = cache.get(key);
+        if (cached != null) {
+            deliver(() -> callback.onMeasured(cached));
+            return;
+        }
+        worker.execute(() -> {
+            int height;
+            try {
+                height = measureNow(text, font, key.width);
+            } catch (RuntimeException e) {
+                System.err.println("Error measuring text: " + e.getMessage());
+                return;
+            }
+            deliver(() -> callback.onMeasured(height));
+        });
+    }
+
+    // Forget every measurement, e.g. once the window width has changed
+    public void invalidate() {
+        cache.clear();
+    }
+
+    private void store(Key key, int height) {
+        if (cache.size() >= MAX_ENTRIES) {
+            cache.clear();
+        }
+        cache.put(key, height);
+    }
+
+    private void deliver(Runnable result) {
+        synchronized (this) {
+            ready.add(result);
+            if (drainPosted) {
+                return;
+            }
+            drainPosted = true;
+        }
+        SwingUtilities.invokeLater(this::drain);
+    }
+
+    private void drain() {
+        List<Runnable> batch;
+        synchronized (this) {
+            batch = new ArrayList<>(ready);
+            ready.clear();
+            drainPosted = false;
+        }
+        for (Runnable result : batch) {
+            result.run();
+        }
+    }
+
+    private static int bucket(int width) {
+        return Math.max(width / WIDTH_BUCKET * WIDTH_BUCKET, WIDTH_BUCKET);
+    }
+
+    // Each "\n" starts a new paragraph; empty paragraphs still take a line
+    private int wrappedHeight(String text, Font font, int width) {
+        // Text components add up rounded per-glyph advances, which run a little
+        // wider than TextLayout's, so wrap early rather than promise too few lines
+        float wrapWidth = Math.max(width * 0.99f, 1);
+
+        // Paragraphs that fit even if every glyph were the widest one need no measuring
+        int maxAdvance = metrics(font).getMaxAdvance();
+        int shortParagraph = maxAdvance > 0 ? (int) (wrapWidth / maxAdvance) : 0;
+
+        int lines = 0;
+        int start = 0;
+        while (start <= text.length()) {
+            int end = text.indexOf('\n', start);
+            if (end < 0) {
+                end = text.length();
+            }
+            if (end - start <= shortParagraph) {
+                lines++;
+            } else {
+                lines += paragraphLines(text.substring(start, end), font, wrapWidth);
+            }
+            start = end + 1;
+        }
+        return lines * lineHeight(font);
+    }
+
+    private int paragraphLines(String paragraph, Font font, float wrapWidth) {
+        AttributedString styled = new AttributedString(paragraph);
+        styled.addAttribute(TextAttribute.FONT, font);
+        // Word boundaries, not line boundaries, are where JTextArea's word wrap breaks
+        LineBreakMeasurer measurer = new LineBreakMeasurer(styled.getIterator(), BreakIterator.getWordInstance(), frc);
+        int lines = 0;
+        while (measurer.getPosition() < paragraph.length()) {
+            // nextOffset finds the break without building a TextLayout for the line
+            measurer.setPosition(measurer.nextOffset(wrapWidth));
+            lines++;
+        }
+        return lines;
+    }
+
+    // Same line height a text component uses for this font
+    public int lineHeight(Font font) {
+        return metrics(font).getHeight();
+    }
+
+    private FontMetrics metrics(Font font) {
+        return metrics.computeIfAbsent(font, f -> {
+            synchronized (metricsGraphics) {
+                return metricsGraphics.getFontMetrics(f);
+            }
+        });
+    }
+
+    public interface Callback {
+        void onMeasured(int height);
+    }
+
+    private static final class Key {
+        final String text;
+        final Font font;
+        final int width;
+
+        Key(String text, Font font, int width) {
+            this.text = text;
+            this.font = font;
+            this.width = width;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return width == other.width && font.equals(other.font) && text.equals(other.text);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(text, font, width);
+        }
+    }
+}
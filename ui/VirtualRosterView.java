@@ -0,0 +1,487 @@
+package ui;
+
+import java.awt.*;
+import java.awt.event.*;
+import java.util.ArrayList;
+import java.util.List;
+import javax.swing.*;
+import misc.ColorScheme;
+
+public class VirtualRosterView extends JComponent implements Scrollable {
+    // Draws the roster as a flat list of rows and only stamps out the rows that
+    // intersect the visible clip, so no per-entry Swing components are created.
+    // Row heights are kept as running offsets; toggling one card only adds a
+    // pass over int offsets instead of a full component layout.
+
+    public static final int SECTION = 0;
+    public static final int SUBSECTION = 1;
+    public static final int CARD = 2;
+    public static final int SEPARATOR = 3;
+
+    private static final int CARD_GAP = 8; // matches the CardColumnLayout gap in App
+    private static final int DETAIL_PADDING_WIDTH = 2 + 36;  // card border + detail padding
+    private static final int DETAIL_PADDING_HEIGHT = 33;
+
+    private final List<Row> rows = new ArrayList<>();
+    private final List<Row> cards = new ArrayList<>();
+    private List<Row> shown = new ArrayList<>();
+    private int[] offsets = new int[1];
+    private int measuredWidth = -1;
+    private int hoverIndex = -1;
+    private boolean relayoutPending;
+
+    private final CellRendererPane rendererPane = new CellRendererPane();
+    private final JLabel sectionStamp = new JLabel();
+    private final JLabel subsectionStamp = new JLabel();
+    private final JLabel separatorStamp = new JLabel();
+    private final CardStamp cardStamp = new CardStamp();
+
+    public VirtualRosterView() {
+        setOpaque(true);
+        setBackground(ColorScheme.BG_COLOR);
+        setBorder(ColorScheme.CONTENT_PADDING);
+        add(rendererPane);
+
+        sectionStamp.setFont(ColorScheme.SECTION_FONT);
+        sectionStamp.setForeground(ColorScheme.RAVENS_GOLD);
+        sectionStamp.setBorder(ColorScheme.SECTION_PADDING);
+
+        subsectionStamp.setFont(ColorScheme.SUBSECTION_FONT);
+        subsectionStamp.setForeground(ColorScheme.RAVENS_PURPLE);
+        subsectionStamp.setBorder(ColorScheme.SUBSECTION_PADDING);
+
+        separatorStamp.setFont(ColorScheme.SEPARATOR_FONT);
+        separatorStamp.setForeground(ColorScheme.SEPARATOR_TEXT);
+        separatorStamp.setHorizontalAlignment(SwingConstants.CENTER);
+        separatorStamp.setBorder(ColorScheme.SEPARATOR_PADDING);
+
+        MouseAdapter mouse = new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int index = rowAt(e.getY());
+                if (index >= 0 && shown.get(index).kind == CARD) {
+                    Row row = shown.get(index);
+                    row.expanded = !row.expanded;
+                    relayout();
+                }
+            }
+
+            @Override
+            public void mouseMoved(MouseEvent e) {
+                int index = rowAt(e.getY());
+                boolean onCard = index >= 0 && shown.get(index).kind == CARD;
+                setCursor(onCard ? Cursor.getPredefinedCursor(Cursor.HAND_CURSOR) : Cursor.getDefaultCursor());
+                setHover(onCard ? index : -1);
+            }
+
+            @Override
+            public void mouseExited(MouseEvent e) {
+                setHover(-1);
+            }
+        };
+        addMouseListener(mouse);
+        addMouseMotionListener(mouse);
+    }
+
+    // Replace the full row structure; cards are numbered in the order they appear
+    public void setRows(List<Row> newRows) {
+        rows.clear();
+        cards.clear();
+        for (Row row : newRows) {
+            if (row.kind == CARD) {
+                row.cardId = cards.size();
+                cards.add(row);
+            }
+            rows.add(row);
+        }
+        showAll();
+    }
+
+    public List<Row> getCards() {
+        return cards;
+    }
+
+    // Original section layout with every card
+    public void showAll() {
+        shown = new ArrayList<>(rows);
+        relayout();
+    }
+
+    // Keep every header, show only the cards whose ids are in the sorted array
+    public void showCards(int[] sortedIds) {
+        List<Row> next = new ArrayList<>(rows.size());
+        int j = 0;
+        for (Row row : rows) {
+            if (row.kind != CARD) {
+                next.add(row);
+                continue;
+            }
+            while (j < sortedIds.length && sortedIds[j] < row.cardId) {
+                j++;
+            }
+            if (j < sortedIds.length && sortedIds[j] == row.cardId) {
+                next.add(row);
+            }
+        }
+        shown = next;
+        relayout();
+    }
+
+    // Matching cards first under their own header, then everything else
+    public void showGrouped(String title, int[] matchingIds, int[] otherIds, String separatorTitle) {
+        List<Row> next = new ArrayList<>(cards.size() + 2);
+        if (!title.isEmpty() && matchingIds.length > 0) {
+            next.add(Row.section(title));
+        }
+        for (int id : matchingIds) {
+            next.add(cards.get(id));
+        }
+        if (matchingIds.length > 0 && otherIds.length > 0) {
+            next.add(Row.separator(separatorTitle));
+        }
+        for (int id : otherIds) {
+            next.add(cards.get(id));
+        }
+        shown = next;
+        relayout();
+    }
+
+    public void setAllExpanded(boolean expand) {
+        for (Row row : shown) {
+            if (row.kind == CARD) {
+                row.expanded = expand;
+            }
+        }
+        relayout();
+    }
+
+    // Recompute running offsets of shown rows; only expanded cards are measured
+    private void relayout() {
+        int width = contentWidth();
+        if (width != measuredWidth) {
+            measuredWidth = width;
+            for (Row row : cards) {
+                row.expandedHeight = -1;
+            }
+        }
+
+        offsets = new int[shown.size() + 1];
+        int y = 0;
+        for (int i = 0; i < shown.size(); i++) {
+            offsets[i] = y;
+            y += heightOf(shown.get(i), width);
+        }
+        offsets[shown.size()] = y;
+
+        if (hoverIndex >= shown.size()) {
+            hoverIndex = -1;
+        }
+        revalidate();
+        repaint();
+    }
+
+    private int heightOf(Row row, int width) {
+        switch (row.kind) {
+            case SECTION:
+            case SUBSECTION:
+                return stamp(row).getPreferredSize().height;
+            case SEPARATOR:
+                return Math.min(stamp(row).getPreferredSize().height, 40) + CARD_GAP;
+            default:
+                if (!row.expanded) {
+                    return cardStamp.collapsedHeight(!row.subtitle.isEmpty()) + CARD_GAP;
+                }
+                if (row.expandedHeight < 0) {
+                    return measureExpanded(row, width) + CARD_GAP;
+                }
+                return row.expandedHeight + CARD_GAP;
+        }
+    }
+
+    // Expanded height from the shared text measurer. Until the background
+    // measurement is back, a one-line-per-paragraph estimate stands in.
+    private int measureExpanded(Row row, int width) {
+        int collapsed = cardStamp.collapsedHeight(!row.subtitle.isEmpty());
+        int textWidth = Math.max(width - DETAIL_PADDING_WIDTH, 1);
+        TextMeasurer measurer = TextMeasurer.shared();
+        int textHeight = measurer.cachedHeight(row.details, ColorScheme.DETAIL_FONT, textWidth);
+        if (textHeight >= 0) {
+            row.expandedHeight = collapsed + textHeight + DETAIL_PADDING_HEIGHT;
+            return row.expandedHeight;
+        }
+
+        if (row.pendingWidth != width) {
+            row.pendingWidth = width;
+            measurer.measure(row.details, ColorScheme.DETAIL_FONT, textWidth, measured -> {
+                if (row.pendingWidth != width) {
+                    return; // superseded by a measurement at another width
+                }
+                row.pendingWidth = -1;
+                if (width == measuredWidth) {
+                    row.expandedHeight = collapsed + measured + DETAIL_PADDING_HEIGHT;
+                    scheduleRelayout();
+                }
+            });
+        }
+        int paragraphs = 1;
+        for (int i = row.details.indexOf('\n'); i >= 0; i = row.details.indexOf('\n', i + 1)) {
+            paragraphs++;
+        }
+        return collapsed + paragraphs * measurer.lineHeight(ColorScheme.DETAIL_FONT) + DETAIL_PADDING_HEIGHT;
+    }
+
+    // Measurements arrive in batches; lay out once per batch, not once per row
+    private void scheduleRelayout() {
+        if (relayoutPending) {
+            return;
+        }
+        relayoutPending = true;
+        SwingUtilities.invokeLater(() -> {
+            relayoutPending = false;
+            relayout();
+        });
+    }
+
+    private Component stamp(Row row) {
+        switch (row.kind) {
+            case SECTION:
+                sectionStamp.setText(row.title);
+                return sectionStamp;
+            case SUBSECTION:
+                subsectionStamp.setText(row.title);
+                return subsectionStamp;
+            case SEPARATOR:
+                separatorStamp.setText(row.title);
+                return separatorStamp;
+            default:
+                return cardStamp;
+        }
+    }
+
+    private int contentWidth() {
+        Insets in = getInsets();
+        int width = getParent() != null ? getParent().getWidth() : getWidth();
+        return Math.max(width - in.left - in.right, 100);
+    }
+
+    private int rowAt(int y) {
+        int target = y - getInsets().top;
+        if (target < 0 || target >= offsets[shown.size()]) {
+            return -1;
+        }
+        // Last offset <= target
+        int lo = 0, hi = shown.size() - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (offsets[mid] <= target) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return lo;
+    }
+
+    private void setHover(int index) {
+        if (index == hoverIndex) {
+            return;
+        }
+        hoverIndex = index;
+        repaint();
+    }
+
+    @Override
+    public void doLayout() {
+        if (contentWidth() != measuredWidth) {
+            relayout();
+        }
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        g.setColor(getBackground());
+        g.fillRect(0, 0, getWidth(), getHeight());
+        if (shown.isEmpty()) {
+            return;
+        }
+
+        Insets in = getInsets();
+        int width = measuredWidth;
+        Rectangle clip = g.getClipBounds();
+        int first = clip == null ? 0 : Math.max(rowAt(Math.max(clip.y, in.top)), 0);
+        int bottom = clip == null ? getHeight() : clip.y + clip.height;
+
+        for (int i = first; i < shown.size() && offsets[i] + in.top < bottom; i++) {
+            Row row = shown.get(i);
+            int y = offsets[i] + in.top;
+            int h = offsets[i + 1] - offsets[i];
+            if (row.kind == CARD) {
+                cardStamp.configure(row, width, i == hoverIndex);
+                rendererPane.paintComponent(g, cardStamp, this, in.left, y, width, h - CARD_GAP, true);
+            } else {
+                Component c = stamp(row);
+                int stampHeight = row.kind == SEPARATOR ? h - CARD_GAP : h;
+                rendererPane.paintComponent(g, c, this, in.left, y, width, stampHeight, true);
+            }
+        }
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        Insets in = getInsets();
+        int width = getParent() != null ? getParent().getWidth() : 900;
+        return new Dimension(width, offsets[shown.size()] + in.top + in.bottom);
+    }
+
+    @Override
+    public Dimension getPreferredScrollableViewportSize() {
+        return getPreferredSize();
+    }
+
+    @Override
+    public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return 16;
+    }
+
+    @Override
+    public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return orientation == SwingConstants.VERTICAL ? visibleRect.height : visibleRect.width;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportWidth() {
+        return true;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportHeight() {
+        return false;
+    }
+
+    // One entry in the flattened roster: a header or a card with its own expand state
+    public static class Row {
+        final int kind;
+        final String title;
+        final String subtitle;
+        final String details;
+        final boolean isPlayer;
+        int cardId = -1;
+        boolean expanded;
+        int expandedHeight = -1;
+        int pendingWidth = -1; // width of an outstanding background measurement
+
+        private Row(int kind, String title, String subtitle, String details, boolean isPlayer) {
+            this.kind = kind;
+            this.title = title;
+            this.subtitle = subtitle;
+            this.details = details;
+            this.isPlayer = isPlayer;
+        }
+
+        public static Row section(String title) {
+            return new Row(SECTION, title, "", "", false);
+        }
+
+        public static Row subsection(String title) {
+            return new Row(SUBSECTION, title, "", "", false);
+        }
+
+        public static Row separator(String title) {
+            return new Row(SEPARATOR, title, "", "", false);
+        }
+
+        public static Row card(String name, String subtitle, String details, boolean isPlayer) {
+            return new Row(CARD, name, subtitle, details, isPlayer);
+        }
+
+        public int getCardId() {
+            return cardId;
+        }
+
+        public boolean isExpanded() {
+            return expanded;
+        }
+
+        public void setExpanded(boolean expanded) {
+            this.expanded = expanded;
+        }
+    }
+
+    // Single reusable component laid out like an ExpandableCard, used only for painting
+    private static class CardStamp extends JPanel {
+        private final JPanel header = new JPanel(new BorderLayout());
+        private final JPanel left = new JPanel();
+        private final JLabel nameLabel = new JLabel();
+        private final JLabel subtitleLabel = new JLabel();
+        private final JLabel arrowLabel = new JLabel();
+        private final JPanel detailPanel = new JPanel(new BorderLayout());
+        private final JTextArea detailText = new JTextArea();
+        private final int[] collapsedHeights = {-1, -1};
+
+        CardStamp() {
+            super(new BorderLayout());
+            setBackground(ColorScheme.CARD_BG);
+            setBorder(ColorScheme.CARD_BORDER);
+
+            header.setBorder(ColorScheme.CARD_HEADER_PADDING);
+            left.setLayout(new BoxLayout(left, BoxLayout.Y_AXIS));
+
+            nameLabel.setFont(ColorScheme.CARD_NAME_FONT);
+            nameLabel.setForeground(ColorScheme.RAVENS_BLACK);
+            subtitleLabel.setFont(ColorScheme.CARD_SUBTITLE_FONT);
+            subtitleLabel.setForeground(ColorScheme.SUBTITLE_TEXT);
+            subtitleLabel.setBorder(ColorScheme.CARD_SUBTITLE_PADDING);
+            arrowLabel.setFont(ColorScheme.ARROW_FONT);
+            arrowLabel.setForeground(ColorScheme.RAVENS_GOLD);
+
+            left.add(nameLabel);
+            left.add(subtitleLabel);
+            header.add(left, BorderLayout.CENTER);
+            header.add(arrowLabel, BorderLayout.EAST);
+
+            detailPanel.setBackground(ColorScheme.DETAIL_BG);
+            detailPanel.setBorder(ColorScheme.DETAIL_PADDING);
+            detailText.setEditable(false);
+            detailText.setLineWrap(true);
+            detailText.setWrapStyleWord(true);
+            detailText.setBackground(ColorScheme.DETAIL_BG);
+            detailText.setFont(ColorScheme.DETAIL_FONT);
+            detailText.setForeground(ColorScheme.DETAIL_TEXT);
+            detailPanel.add(detailText, BorderLayout.CENTER);
+
+            add(header, BorderLayout.NORTH);
+            add(detailPanel, BorderLayout.CENTER);
+        }
+
+        void configure(Row row, int width, boolean hover) {
+            Color bg = hover && !row.expanded ? ColorScheme.HOVER_COLOR : ColorScheme.CARD_BG;
+            header.setBackground(bg);
+            left.setBackground(bg);
+            nameLabel.setText(row.title);
+            subtitleLabel.setText(row.subtitle);
+            subtitleLabel.setVisible(!row.subtitle.isEmpty());
+            arrowLabel.setText(row.expanded ? "▲" : "▼");
+
+            detailPanel.setVisible(row.expanded);
+            if (row.expanded) {
+                detailText.setText(row.details);
+                // Give the text area its real width so wrapped height is correct
+                detailText.setSize(new Dimension(Math.max(width - 2 - 36, 1), Short.MAX_VALUE));
+            }
+        }
+
+        // Collapsed cards only differ by whether they show a subtitle line
+        int collapsedHeight(boolean hasSubtitle) {
+            int slot = hasSubtitle ? 1 : 0;
+            if (collapsedHeights[slot] < 0) {
+                nameLabel.setText("X");
+                subtitleLabel.setText("X");
+                subtitleLabel.setVisible(hasSubtitle);
+                arrowLabel.setText("▼");
+                detailPanel.setVisible(false);
+                collapsedHeights[slot] = getPreferredSize().height;
+            }
+            return collapsedHeights[slot];
+        }
+    }
+}